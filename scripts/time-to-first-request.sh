@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Starts the application RUNS times and reports how long it takes until the first API request
+# succeeds, i.e. what an autoscaled pod waits before it can take traffic.
+#
+# Usage: scripts/time-to-first-request.sh <java options and -jar/-cp arguments>
+#   RUNS=5 URL=http://localhost:8080/api/api/users?size=1 scripts/time-to-first-request.sh -jar target/app.jar
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+URL=${URL:-http://localhost:8080/api/api/users?size=1}
+results=()
+
+for run in $(seq "$RUNS"); do
+  start=$(date +%s%N)
+  java "$@" > /dev/null 2>&1 &
+  pid=$!
+  until curl -sf -o /dev/null "$URL"; do
+    if ! kill -0 "$pid" 2> /dev/null; then
+      echo "application exited before answering $URL" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  kill "$pid" && wait "$pid" || true
+  results+=("$elapsed")
+  echo "run $run: ${elapsed} ms"
+done
+
+median=$(printf '%s\n' "${results[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")
+echo "median: ${median} ms"
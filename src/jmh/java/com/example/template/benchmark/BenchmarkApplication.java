@@ -0,0 +1,28 @@
+package com.example.template.benchmark;
+
+import com.example.template.Application;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        String[] defaults = {
+                "--spring.profiles.active=benchmark",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--spring.devtools.add-properties=false",
+                "--logging.file.name=",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF"
+        };
+        String[] args = new String[defaults.length + extraArgs.length];
+        System.arraycopy(defaults, 0, args, 0, defaults.length);
+        System.arraycopy(extraArgs, 0, args, defaults.length, extraArgs.length);
+        return new SpringApplicationBuilder(Application.class).run(args);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.template.benchmark;
+
+import com.example.template.model.User;
+import com.example.template.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Tomcat's platform thread pool with {@code spring.threads.virtual.enabled=true} by
+ * driving the real HTTP stack from more concurrent clients than the default pool has threads.
+ * Throughput comes from {@code Mode.Throughput}; p99 latency from the {@code Mode.SampleTime}
+ * percentiles.
+ *
+ * <p>The {@code virtual} mode needs Java 21+ and fails its trial on older runtimes; CI runs this
+ * benchmark on JDK 21, the runtime of the Docker image. The adaptive concurrency limit is off, so
+ * both modes see the full client load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(400)
+@Fork(1)
+public class ThreadingModeBenchmark {
+
+    private static final int SEEDED_USERS = 1_000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean virtual = "virtual".equals(threads);
+        if (virtual && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on " + Runtime.version());
+        }
+        // 400 clients would otherwise be shed with 503 by ConcurrencyLimitFilter, which is not what is measured here
+        context = BenchmarkApplication.start("--spring.threads.virtual.enabled=" + virtual,
+                "--app.concurrency-limit.enabled=false");
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String password = context.getBean(PasswordEncoder.class).encode("password123");
+        List<User> seed = new ArrayList<>(SEEDED_USERS);
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            seed.add(new User("seed" + i, "seed" + i + "@example.com", password));
+        }
+        ids = userRepository.saveAll(seed).stream().map(User::getId).toList();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/api/users";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUserById() throws IOException, InterruptedException {
+        return get(baseUrl + "/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public int getUserPage() throws IOException, InterruptedException {
+        return get(baseUrl + "?page=" + ThreadLocalRandom.current().nextInt(50) + "&size=20");
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + url + " returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
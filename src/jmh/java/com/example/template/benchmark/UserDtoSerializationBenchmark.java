@@ -0,0 +1,101 @@
+package com.example.template.benchmark;
+
+import com.example.template.config.JacksonConfig;
+import com.example.template.dto.UserDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Jackson serialization of {@link UserDto} and a default-sized {@code Page<UserDto>}
+ * with the same module set Spring Boot registers on the MVC ObjectMapper, per response format:
+ * JSON with Jackson's stock java.time serializers, and JSON, Smile and CBOR as
+ * {@link JacksonConfig} sets them up.
+ * Throughput is the CPU cost per response on one thread, {@code gc.alloc.rate.norm} the bytes
+ * allocated per response; the encoded size of each body is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDtoSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"json-jackson", "json", "smile", "cbor"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private UserDto user;
+    private Page<UserDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = mapper(format);
+
+        LocalDateTime now = LocalDateTime.now();
+        user = new UserDto(1L, "benchuser", "benchuser@example.com", now, now, true, 0L);
+
+        List<UserDto> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(new UserDto((long) i, "user" + i, "user" + i + "@example.com", now, now, true, 0L));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")), 10_000);
+
+        try {
+            System.out.printf("%n%s: user %d bytes, page %d bytes%n", format,
+                    objectMapper.writeValueAsBytes(user).length, objectMapper.writeValueAsBytes(page).length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        // As spring.jackson.serialization.write-dates-as-timestamps=false in application.yml
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (!format.equals("json-jackson")) {
+            builder.modulesToInstall(new JacksonConfig().isoLocalDateTimeModule());
+        }
+        return switch (format) {
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> builder.build();
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.template.benchmark;
+
+import com.example.template.dto.UserDto;
+import com.example.template.model.User;
+import com.example.template.repository.UserRepository;
+import com.example.template.service.UserService;
+import com.example.template.service.impl.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.AopTestUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the {@link UserServiceImpl} paths against the real JPA/H2 stack, including the
+ * BCrypt cost paid by {@code createUser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final int SEEDED_USERS = 10_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserServiceImpl userServiceTarget;
+    private MethodHandle mapToDto;
+    private Pageable pageable;
+    private List<Long> ids;
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        context = BenchmarkApplication.start();
+        userService = context.getBean(UserService.class);
+        userServiceTarget = AopTestUtils.getUltimateTargetObject(userService);
+        mapToDto = MethodHandles.privateLookupIn(UserServiceImpl.class, MethodHandles.lookup())
+                .findVirtual(UserServiceImpl.class, "mapToDto", MethodType.methodType(UserDto.class, User.class));
+        pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String password = context.getBean(PasswordEncoder.class).encode("password123");
+        List<User> seed = new ArrayList<>(SEEDED_USERS);
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            seed.add(new User("seed" + i, "seed" + i + "@example.com", password));
+        }
+        ids = userRepository.saveAll(seed).stream().map(User::getId).toList();
+
+        user = new User("mapped", "mapped@example.com", password);
+        user.setId(1L);
+        user.setCreatedAt(LocalDateTime.now());
+        user.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserDto createUser() {
+        long n = sequence.incrementAndGet();
+        UserDto dto = new UserDto();
+        dto.setUsername("bench" + n);
+        dto.setEmail("bench" + n + "@example.com");
+        return userService.createUser(dto, "password123");
+    }
+
+    @Benchmark
+    public Optional<UserDto> getUserById() {
+        return userService.getUserById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Page<UserDto> searchUsers() {
+        return userService.searchUsers("seed12", pageable);
+    }
+
+    @Benchmark
+    public UserDto mapToDto() throws Throwable {
+        return (UserDto) mapToDto.invokeExact(userServiceTarget, user);
+    }
+}
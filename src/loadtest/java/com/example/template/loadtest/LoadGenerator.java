@@ -0,0 +1,115 @@
+package com.example.template.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Open-model load generator. Arrivals are scheduled at a fixed rate per scenario and sent with
+ * {@link HttpClient#sendAsync}, so a slow server does not slow the arrival rate down.
+ *
+ * <p>Latency is measured from the time a request was due to be sent rather than from when it
+ * actually went out, so stalls in the generator or the server are charged to every request that
+ * waited on them instead of being hidden (coordinated omission). Requests beyond
+ * {@code maxInFlight} are dropped and counted rather than queued without bound.
+ */
+final class LoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final List<Scenario> scenarios;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Scenario, AtomicLong> arrivals = new LinkedHashMap<>();
+    private final Map<Scenario, ScenarioStats> stats = new LinkedHashMap<>();
+
+    LoadGenerator(HttpClient client, List<Scenario> scenarios, int maxInFlight) {
+        this.client = client;
+        this.scenarios = scenarios;
+        this.maxInFlight = maxInFlight;
+        for (Scenario scenario : scenarios) {
+            arrivals.put(scenario, new AtomicLong());
+            stats.put(scenario, new ScenarioStats(scenario.name()));
+        }
+    }
+
+    /**
+     * Generates load for {@code duration}, then lets scheduled session steps and in-flight
+     * requests finish.
+     */
+    void run(Duration duration) throws InterruptedException {
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        try {
+            for (Scenario scenario : scenarios) {
+                if (scenario.arrivalsPerSecond() <= 0) {
+                    continue;
+                }
+                long period = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / scenario.arrivalsPerSecond()));
+                long start = System.nanoTime();
+                AtomicLong scheduled = new AtomicLong();
+                scheduler.scheduleAtFixedRate(
+                        () -> arrive(scheduler, scenario, start + scheduled.getAndIncrement() * period),
+                        0, period, TimeUnit.NANOSECONDS);
+            }
+            Thread.sleep(duration.toMillis());
+        } finally {
+            // Cancels the arrival schedules; session steps that are already scheduled still run
+            scheduler.shutdown();
+        }
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        scheduler.awaitTermination(DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    void reset() {
+        stats.values().forEach(ScenarioStats::reset);
+    }
+
+    Collection<ScenarioStats> stats() {
+        return stats.values();
+    }
+
+    private void arrive(ScheduledExecutorService scheduler, Scenario scenario, long intendedStart) {
+        long arrival = arrivals.get(scenario).getAndIncrement();
+        long interval = scenario.stepInterval().toNanos();
+        for (int step = 0; step < scenario.steps(); step++) {
+            long due = intendedStart + step * interval;
+            if (step == 0 || interval == 0) {
+                send(scenario, arrival, step, due);
+            } else {
+                int current = step;
+                scheduler.schedule(() -> send(scenario, arrival, current, due),
+                        due - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void send(Scenario scenario, long arrival, int step, long due) {
+        ScenarioStats scenarioStats = stats.get(scenario);
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            scenarioStats.drop();
+            return;
+        }
+        HttpRequest request = scenario.requests().create(arrival, step);
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    int status = response != null ? response.statusCode() : ScenarioStats.NO_RESPONSE;
+                    scenarioStats.record(System.nanoTime() - due, status);
+                    inFlight.decrementAndGet();
+                });
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.template.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for {@link LoadTestRunner}, given as whitespace separated {@code key=value} pairs.
+ * Rates are arrivals per second and do not depend on response times (open model).
+ */
+record LoadTestOptions(Duration warmup,
+                       Duration duration,
+                       int seedUsers,
+                       double signupRate,
+                       int signupBurst,
+                       double lookupRate,
+                       double searchRate,
+                       Duration typingDelay,
+                       double pageRate,
+                       int pagesPerSession,
+                       Duration pageThinkTime,
+                       int maxInFlight,
+                       Path reportDir) {
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                int separator = token.indexOf('=');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Expected key=value but got: " + token);
+                }
+                values.put(token.substring(0, separator), token.substring(separator + 1));
+            }
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                DurationStyle.detectAndParse(value(values, "warmup", "10s")),
+                DurationStyle.detectAndParse(value(values, "duration", "60s")),
+                Integer.parseInt(value(values, "seedUsers", "10000")),
+                Double.parseDouble(value(values, "signupRate", "0.5")),
+                Integer.parseInt(value(values, "signupBurst", "20")),
+                Double.parseDouble(value(values, "lookupRate", "200")),
+                Double.parseDouble(value(values, "searchRate", "10")),
+                DurationStyle.detectAndParse(value(values, "typingDelay", "150ms")),
+                Double.parseDouble(value(values, "pageRate", "20")),
+                Integer.parseInt(value(values, "pagesPerSession", "3")),
+                DurationStyle.detectAndParse(value(values, "pageThinkTime", "500ms")),
+                Integer.parseInt(value(values, "maxInFlight", "1000")),
+                Path.of(value(values, "reportDir", "target/loadtest")));
+
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        return options;
+    }
+
+    private static String value(Map<String, String> values, String key, String defaultValue) {
+        String value = values.remove(key);
+        return value != null ? value : defaultValue;
+    }
+}
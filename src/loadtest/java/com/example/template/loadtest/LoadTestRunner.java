@@ -0,0 +1,177 @@
+package com.example.template.loadtest;
+
+import com.example.template.Application;
+import com.example.template.model.User;
+import com.example.template.repository.UserRepository;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application on a random port against the in-memory H2 database, seeds users and
+ * drives a mix of open-model scenarios against {@code UserController}:
+ * <ul>
+ *   <li>{@code signup} - bursts of {@code signupBurst} concurrent sign-ups</li>
+ *   <li>{@code lookup} - {@code GET /users/{id}} of seeded users</li>
+ *   <li>{@code search} - typing sessions, one search per keystroke of a seeded username</li>
+ *   <li>{@code paging} - browsing sessions that page through the user list</li>
+ * </ul>
+ * Latency percentiles and throughput are printed per scenario after a warmup, and each
+ * scenario's full HdrHistogram percentile distribution is written to {@code reportDir} as
+ * {@code <scenario>.hgrm} so runs can be compared or plotted.
+ *
+ * <p>Arguments: whitespace separated {@code key=value} pairs, see {@link LoadTestOptions}.
+ */
+public class LoadTestRunner {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_CHUNK = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        try (ConfigurableApplicationContext context = start()) {
+            List<User> users = seed(context, options.seedUsers());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            LoadGenerator generator = new LoadGenerator(client,
+                    scenarios(options, "http://localhost:" + port + "/api/api/users", users),
+                    options.maxInFlight());
+
+            System.out.printf("Seeded %d users, warming up for %s%n", users.size(), options.warmup());
+            generator.run(options.warmup());
+            generator.reset();
+
+            System.out.printf("Measuring for %s%n", options.duration());
+            generator.run(options.duration());
+            report(generator, options, System.out);
+        }
+    }
+
+    static List<Scenario> scenarios(LoadTestOptions options, String baseUrl, List<User> users) {
+        AtomicLong signups = new AtomicLong();
+        int pages = Math.max(1, users.size() / PAGE_SIZE);
+
+        Scenario signup = new Scenario("signup", options.signupRate(), options.signupBurst(), Duration.ZERO,
+                (arrival, step) -> {
+                    String username = "load" + signups.incrementAndGet();
+                    String json = "{\"username\":\"" + username + "\",\"email\":\"" + username
+                            + "@example.com\",\"password\":\"password123\"}";
+                    return HttpRequest.newBuilder(URI.create(baseUrl))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(json))
+                            .build();
+                });
+
+        Scenario lookup = new Scenario("lookup", options.lookupRate(), 1, Duration.ZERO,
+                (arrival, step) -> get(baseUrl + "/" + pick(users, arrival).getId()));
+
+        // "see", "seed", "seed4", ... of one seeded username per session
+        Scenario search = new Scenario("search", options.searchRate(), 5, options.typingDelay(),
+                (arrival, step) -> {
+                    String username = pick(users, arrival).getUsername();
+                    String typed = username.substring(0, Math.min(username.length(), 3 + step));
+                    return get(baseUrl + "?search=" + typed + "&size=" + PAGE_SIZE + "&total=none");
+                });
+
+        // The first page shows the exact total, following pages only need has-next
+        Scenario paging = new Scenario("paging", options.pageRate(), options.pagesPerSession(),
+                options.pageThinkTime(),
+                (arrival, step) -> {
+                    int first = new SplittableRandom(arrival).nextInt(pages);
+                    String total = step == 0 ? "exact" : "none";
+                    return get(baseUrl + "?page=" + (first + step) % pages + "&size=" + PAGE_SIZE + "&total=" + total);
+                });
+
+        return List.of(signup, lookup, search, paging);
+    }
+
+    private static ConfigurableApplicationContext start() {
+        // Devtools reads this before the arguments are parsed and would otherwise restart main
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // No profile file exists for "loadtest", so the H2 datasource from application.yml is used
+        return new SpringApplicationBuilder(Application.class).run(
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.add-properties=false",
+                "--logging.file.name=",
+                "--logging.level.root=WARN",
+                "--logging.level.com.example.template=WARN",
+                "--logging.level.org.hibernate.SQL=OFF",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF");
+    }
+
+    // Saved through JPA so the search index and availability filters see the seeded users
+    private static List<User> seed(ConfigurableApplicationContext context, int count) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String password = context.getBean(PasswordEncoder.class).encode("password123");
+        List<User> users = new ArrayList<>(count);
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            List<User> chunk = new ArrayList<>(SEED_CHUNK);
+            for (int i = from; i < Math.min(count, from + SEED_CHUNK); i++) {
+                chunk.add(new User("seed" + i, "seed" + i + "@example.com", password));
+            }
+            users.addAll(userRepository.saveAll(chunk));
+        }
+        return users;
+    }
+
+    private static User pick(List<User> users, long arrival) {
+        return users.get(new SplittableRandom(arrival).nextInt(users.size()));
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static void report(LoadGenerator generator, LoadTestOptions options, PrintStream out) throws IOException {
+        double seconds = options.duration().toMillis() / 1000.0;
+        Files.createDirectories(options.reportDir());
+
+        out.printf("%n%-8s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "scenario", "requests", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (ScenarioStats stats : generator.stats()) {
+            Histogram latencies = stats.latencies();
+            out.printf("%-8s %9d %7d %8d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    stats.name(), latencies.getTotalCount(), stats.errors(), stats.dropped(),
+                    latencies.getTotalCount() / seconds,
+                    millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                    latencies.getMaxValue() / NANOS_PER_MILLI);
+
+            Path histogram = options.reportDir().resolve(stats.name() + ".hgrm");
+            try (PrintStream file = new PrintStream(Files.newOutputStream(histogram))) {
+                latencies.outputPercentileDistribution(file, NANOS_PER_MILLI);
+            }
+        }
+        out.println();
+        for (ScenarioStats stats : generator.stats()) {
+            out.printf("%-8s statuses %s%n", stats.name(), stats.statuses());
+        }
+        out.printf("Percentile distributions written to %s%n", options.reportDir().toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.template.loadtest;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+
+/**
+ * One kind of client behavior. Every arrival sends {@code steps} requests spaced by
+ * {@code stepInterval}, whether or not the earlier steps have completed; a zero interval makes the
+ * arrival a burst.
+ */
+record Scenario(String name, double arrivalsPerSecond, int steps, Duration stepInterval, Requests requests) {
+
+    /**
+     * Builds the request for one step of one arrival. Steps of the same arrival share the
+     * {@code arrival} number, so a session can derive its state (e.g. the name being typed) from it.
+     */
+    @FunctionalInterface
+    interface Requests {
+        HttpRequest create(long arrival, int step);
+    }
+
+    Scenario {
+        if (steps < 1) {
+            throw new IllegalArgumentException(name + ": steps must be at least 1");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.template.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (nanoseconds, 3 significant digits) and response status counts for one
+ * scenario. Status {@code -1} counts requests that failed without a response.
+ */
+final class ScenarioStats {
+
+    static final int NO_RESPONSE = -1;
+
+    private final String name;
+    private final Histogram latencies = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    ScenarioStats(String name) {
+        this.name = name;
+    }
+
+    void record(long latencyNanos, int status) {
+        latencies.recordValue(Math.max(latencyNanos, 0));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    void drop() {
+        dropped.increment();
+    }
+
+    void reset() {
+        latencies.reset();
+        statuses.clear();
+        dropped.reset();
+    }
+
+    String name() {
+        return name;
+    }
+
+    Histogram latencies() {
+        return latencies;
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    long errors() {
+        return statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() == NO_RESPONSE || entry.getKey() >= 400)
+                .mapToLong(entry -> entry.getValue().sum())
+                .sum();
+    }
+
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.template.cache;
+
+import com.example.template.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filters over every username and email stored, so availability checks for names that
+ * were never taken are answered without a query. Filters cannot forget: renamed and deleted
+ * users leave false positives behind, which only cost a database lookup.
+ * <p>
+ * Each instance only adds its own signups as they happen, so a name taken through another
+ * instance reads as available here until the filters are rebuilt from the table, every
+ * {@code app.users.availability.rebuild-interval} (0 disables it). If rebuilds keep failing,
+ * filters older than twice the interval are not trusted and every check goes to the database,
+ * as it does until the startup rebuild finishes.
+ */
+@Component
+public class UserAvailabilityFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityFilter.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnly;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService rebuilds;
+    private final Counter answeredByFilter;
+    private final Counter answeredByDatabase;
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public UserAvailabilityFilter(UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.users.availability.expected-insertions:1000000}") long expectedInsertions,
+                                  @Value("${app.users.availability.false-positive-probability:0.01}") double falsePositiveProbability,
+                                  @Value("${app.users.availability.rebuild-interval:5m}") Duration rebuildInterval,
+                                  MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.rebuildInterval = rebuildInterval;
+        this.rebuilds = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("availability-rebuild-"));
+        this.answeredByFilter = Counter.builder("users.availability.checks")
+                .description("Availability checks by where they were answered")
+                .tag("source", "filter")
+                .register(meterRegistry);
+        this.answeredByDatabase = Counter.builder("users.availability.checks")
+                .description("Availability checks by where they were answered")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long start = System.nanoTime();
+        rebuild();
+        log.info("Availability filter built in {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        if (!rebuildInterval.isZero()) {
+            long interval = rebuildInterval.toMillis();
+            rebuilds.scheduleWithFixedDelay(this::scheduledRebuild, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Builds new filters from the users table and swaps them in. Signups made while the table is
+     * read go into both the old and the new filters.
+     */
+    public void rebuild() {
+        Filters next = new Filters(new BloomFilter(expectedInsertions, falsePositiveProbability),
+                new BloomFilter(expectedInsertions, falsePositiveProbability));
+        building = next;
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<String> stored = userRepository.streamUsernames()) {
+                    stored.forEach(next.usernames()::put);
+                }
+                try (Stream<String> stored = userRepository.streamEmails()) {
+                    stored.forEach(next.emails()::put);
+                }
+            });
+            current = next.built();
+        } finally {
+            building = null;
+        }
+    }
+
+    public void add(String username, String email) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.add(username, email);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.add(username, email);
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters filters = trusted();
+        return record(filters == null || filters.usernames().mightContain(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = trusted();
+        return record(filters == null || filters.emails().mightContain(email));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    private Filters trusted() {
+        Filters filters = current;
+        if (filters != null && !rebuildInterval.isZero()
+                && System.nanoTime() - filters.builtAt() > 2 * rebuildInterval.toNanos()) {
+            return null;
+        }
+        return filters;
+    }
+
+    private void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Availability filter rebuild failed, keeping the current filters until the next one", e);
+        }
+    }
+
+    private boolean record(boolean mightContain) {
+        (mightContain ? answeredByDatabase : answeredByFilter).increment();
+        return mightContain;
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails, long builtAt) {
+
+        Filters(BloomFilter usernames, BloomFilter emails) {
+            this(usernames, emails, 0);
+        }
+
+        Filters built() {
+            return new Filters(usernames, emails, System.nanoTime());
+        }
+
+        void add(String username, String email) {
+            usernames.put(username);
+            emails.put(email);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.template.cache;
+
+import com.example.template.dto.UserDto;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for user lookups (Caffeine, W-TinyLFU eviction).
+ *
+ * <p>Users are stored once, keyed by id. The username and email caches only map to the id and
+ * are validated against the id entry on every hit, so evicting the id entry is enough to make
+ * all three keys consistent. Writers evict immediately and again after the surrounding
+ * transaction completes, so a concurrent read of the pre-commit row cannot survive the write.
+ * Each pod keeps its own cache; {@code expire-after-write} bounds staleness for writes made by
+ * other pods.
+ *
+ * <p>Id entries are futures that are inserted first and completed outside the map's bin lock, so
+ * the JDBC load never runs inside {@code ConcurrentHashMap.compute}. Holding that monitor across
+ * I/O would pin virtual threads to their carriers; concurrent readers of the same id still share
+ * one load by joining the future.
+ */
+@Component
+public class UserCache {
+
+    private final AsyncCache<Long, UserDto> byId;
+    private final Cache<String, Long> byUsername;
+    private final Cache<String, Long> byEmail;
+
+    public UserCache(@Value("${app.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${app.cache.users.expire-after-write:60s}") Duration expireAfterWrite,
+                     MeterRegistry meterRegistry) {
+        this.byId = builder(maximumSize, expireAfterWrite).buildAsync();
+        this.byUsername = build(maximumSize, expireAfterWrite);
+        this.byEmail = build(maximumSize, expireAfterWrite);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "users.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users.username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.email");
+    }
+
+    public Optional<UserDto> getById(Long id, Function<Long, Optional<UserDto>> loader) {
+        CompletableFuture<UserDto> cached = byId.getIfPresent(id);
+        if (cached == null) {
+            CompletableFuture<UserDto> loading = new CompletableFuture<>();
+            cached = byId.asMap().putIfAbsent(id, loading);
+            if (cached == null) {
+                return load(id, loader, loading);
+            }
+        }
+        return Optional.ofNullable(join(cached));
+    }
+
+    /**
+     * Returns a cached user without loading it on a miss.
+     */
+    public Optional<UserDto> peekById(Long id) {
+        CompletableFuture<UserDto> cached = byId.getIfPresent(id);
+        if (cached == null || !cached.isDone() || cached.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cached.join());
+    }
+
+    public Optional<UserDto> peekByUsername(String username) {
+        Long id = byUsername.getIfPresent(username);
+        return id == null
+                ? Optional.empty()
+                : peekById(id).filter(dto -> username.equals(dto.getUsername()));
+    }
+
+    public Optional<UserDto> getByUsername(String username,
+                                           Function<String, Optional<UserDto>> loader,
+                                           Function<Long, Optional<UserDto>> idLoader) {
+        return lookup(byUsername, username, UserDto::getUsername, loader, idLoader);
+    }
+
+    public Optional<UserDto> getByEmail(String email,
+                                        Function<String, Optional<UserDto>> loader,
+                                        Function<Long, Optional<UserDto>> idLoader) {
+        return lookup(byEmail, email, UserDto::getEmail, loader, idLoader);
+    }
+
+    public void evict(Long id, String username, String email) {
+        invalidate(id, username, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(id, username, email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts users changed by a bulk statement. Only the id entries are dropped; username and
+     * email entries are re-validated against them on the next hit.
+     */
+    public void evict(Collection<Long> ids) {
+        byId.synchronous().invalidateAll(ids);
+    }
+
+    public void evictAll() {
+        byId.synchronous().invalidateAll();
+        byUsername.invalidateAll();
+        byEmail.invalidateAll();
+    }
+
+    private Optional<UserDto> lookup(Cache<String, Long> index, String key,
+                                     Function<UserDto, String> keyOf,
+                                     Function<String, Optional<UserDto>> loader,
+                                     Function<Long, Optional<UserDto>> idLoader) {
+        Long id = index.getIfPresent(key);
+        if (id != null) {
+            Optional<UserDto> user = getById(id, idLoader).filter(dto -> key.equals(keyOf.apply(dto)));
+            if (user.isPresent()) {
+                return user;
+            }
+            index.invalidate(key);
+        }
+
+        Optional<UserDto> user = loader.apply(key);
+        user.ifPresent(dto -> index.put(key, dto.getId()));
+        return user;
+    }
+
+    // A null or failed result removes the entry again, so misses and errors are not cached.
+    private static Optional<UserDto> load(Long id, Function<Long, Optional<UserDto>> loader,
+                                          CompletableFuture<UserDto> loading) {
+        try {
+            Optional<UserDto> user = loader.apply(id);
+            loading.complete(user.orElse(null));
+            return user;
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static UserDto join(CompletableFuture<UserDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private void invalidate(Long id, String username, String email) {
+        byId.synchronous().invalidate(id);
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+        if (email != null) {
+            byEmail.invalidate(email);
+        }
+    }
+
+    private static <K, V> Cache<K, V> build(long maximumSize, Duration expireAfterWrite) {
+        return builder(maximumSize, expireAfterWrite).build();
+    }
+
+    private static Caffeine<Object, Object> builder(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.template.cache;
+
+import com.example.template.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Approximate totals for paged user listings, so clients that want a total do not pay for a
+ * COUNT query on every request.
+ *
+ * <p>Counts are loaded on first use and reloaded in the background once they are older than
+ * {@code refresh-after-write}; the stale value keeps being served while the reload runs. The
+ * unfiltered active-user count is additionally adjusted as users are created, activated and
+ * deactivated, so it tracks writes between reloads.
+ *
+ * <p>Loads run on Caffeine's executor rather than inside the map's bin lock, so request threads
+ * (including virtual threads) only park on a future while a COUNT is in flight.
+ */
+@Component
+public class UserCountCache {
+
+    private static final String ACTIVE_USERS = "";
+
+    private final AsyncLoadingCache<String, Long> counts;
+
+    public UserCountCache(UserRepository userRepository,
+                          @Value("${app.cache.user-counts.maximum-size:1000}") long maximumSize,
+                          @Value("${app.cache.user-counts.refresh-after-write:30s}") Duration refreshAfterWrite,
+                          @Value("${app.cache.user-counts.expire-after-write:10m}") Duration expireAfterWrite,
+                          MeterRegistry meterRegistry) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfterWrite)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync(key -> key.isEmpty()
+                        ? userRepository.countByActiveTrue()
+                        : userRepository.countActiveUsersWithSearch(key));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "users.counts");
+    }
+
+    public long activeUsers() {
+        return counts.get(ACTIVE_USERS).join();
+    }
+
+    public long activeUsersMatching(String search) {
+        return counts.get(search.toLowerCase(Locale.ROOT)).join();
+    }
+
+    public void adjustActiveUsers(long delta) {
+        afterCommit(() -> counts.synchronous().asMap().computeIfPresent(ACTIVE_USERS, (key, count) -> Math.max(0, count + delta)));
+    }
+
+    public void refreshActiveUsers() {
+        afterCommit(() -> counts.synchronous().refresh(ACTIVE_USERS));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.template.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatVirtualThreadsWebServerFactoryCustomizer;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fails startup when an AOT-processed build runs with settings it was not built for. Spring AOT
+ * evaluates bean conditions during {@code process-aot}, so {@code spring.threads.virtual.enabled}
+ * and {@code app.datasource.routing.enabled} are fixed in the generated bean definitions and
+ * changing them at runtime would otherwise be ignored. Rebuild with the new values instead (see the
+ * Dockerfile build arguments). Without AOT the conditions are evaluated at startup and nothing is checked.
+ */
+@Component
+public class AotBuildConditionsCheck implements SmartInitializingSingleton {
+
+    private final Environment environment;
+    private final ListableBeanFactory beanFactory;
+    private final boolean aotProcessed;
+
+    @Autowired
+    public AotBuildConditionsCheck(Environment environment, ListableBeanFactory beanFactory) {
+        this(environment, beanFactory, AotDetector.useGeneratedArtifacts());
+    }
+
+    AotBuildConditionsCheck(Environment environment, ListableBeanFactory beanFactory, boolean aotProcessed) {
+        this.environment = environment;
+        this.beanFactory = beanFactory;
+        this.aotProcessed = aotProcessed;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!aotProcessed) {
+            return;
+        }
+        List<String> mismatches = new ArrayList<>();
+        compare(mismatches, "spring.threads.virtual.enabled (VIRTUAL_THREADS_ENABLED)",
+                Threading.VIRTUAL.isActive(environment), TomcatVirtualThreadsWebServerFactoryCustomizer.class);
+        compare(mismatches, "app.datasource.routing.enabled (DATASOURCE_ROUTING_ENABLED)",
+                environment.getProperty("app.datasource.routing.enabled", Boolean.class, false),
+                ReplicaRoutingDataSource.class);
+        if (!mismatches.isEmpty()) {
+            throw new IllegalStateException("AOT-processed build does not match the runtime configuration: "
+                    + String.join("; ", mismatches) + ". These are fixed at build time, rebuild with the new values");
+        }
+    }
+
+    private void compare(List<String> mismatches, String setting, boolean runtime, Class<?> builtBean) {
+        boolean built = beanFactory.getBeanNamesForType(builtBean, true, false).length > 0;
+        if (built != runtime) {
+            mismatches.add(setting + " is " + runtime + " but the build used " + built);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.template.config;
+
+import com.example.template.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Sheds load on {@code /api/users} before it reaches the service layer. Reads and writes have
+ * separate {@link ConcurrencyLimiter}s, so a backlog of slow writes cannot starve lookups; a
+ * request over its limit gets an immediate 503 with {@code Retry-After}. Exports
+ * {@code http.concurrency.limit}, {@code http.concurrency.in.flight} and
+ * {@code http.concurrency.rejected}, tagged with {@code group=read|write}.
+ *
+ * <p>User creation, batch create and import are not limited here. They spend ~100 ms per user in
+ * BCrypt, while the other writes take a few ms; sharing one Vegas limiter, whose no-load latency
+ * tracks the fastest samples, would read every create as queueing and pin the write limit at its
+ * minimum. Their concurrency is already bounded by {@code BoundedPasswordEncoder}, which sheds
+ * them with the same 503 when the hashing queue is full.
+ *
+ * <p>Streamed exports and the change stream finish on an async thread after this filter
+ * returns, so they only hold their slot until the response starts streaming.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String USERS_PATH = "/api/users";
+
+    private final ObjectMapper objectMapper;
+    private final Duration retryAfter;
+    private final Group read;
+    private final Group write;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.retryAfter = properties.retryAfter();
+        this.read = new Group("read", new ConcurrencyLimiter(properties.read()), meterRegistry);
+        this.write = new Group("write", new ConcurrencyLimiter(properties.write()), meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !path.startsWith(USERS_PATH) || isPasswordHashing(request.getMethod(), path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Group group = isRead(request) ? read : write;
+        if (!group.limiter.tryAcquire()) {
+            group.rejected.increment();
+            reject(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            group.limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Too many concurrent requests, retry later",
+                LocalDateTime.now(),
+                "uri=" + request.getRequestURI());
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static boolean isPasswordHashing(String method, String path) {
+        return "POST".equals(method) && (path.equals(USERS_PATH) || path.equals(USERS_PATH + "/batch")
+                || path.equals(USERS_PATH + "/import"));
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private static final class Group {
+
+        private final ConcurrencyLimiter limiter;
+        private final Counter rejected;
+
+        private Group(String name, ConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+            this.limiter = limiter;
+            Gauge.builder("http.concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+                    .description("Adaptive limit on in-flight requests")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrency.in.flight", limiter, ConcurrencyLimiter::getInFlight)
+                    .description("Requests currently holding a concurrency slot")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("http.concurrency.rejected")
+                    .description("Requests rejected with 503 because the concurrency limit was reached")
+                    .tag("group", name)
+                    .register(meterRegistry);
+        }
+    }
+}
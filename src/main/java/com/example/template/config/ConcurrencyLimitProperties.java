@@ -0,0 +1,34 @@
+package com.example.template.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive in-flight request limits for {@code /api/users}, one for reads (GET, HEAD) and one
+ * for writes. Each limit starts at {@code initialLimit} and is moved between {@code minLimit}
+ * and {@code maxLimit} by {@link ConcurrencyLimiter}.
+ */
+@ConfigurationProperties("app.concurrency-limit")
+public record ConcurrencyLimitProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("1s") Duration retryAfter,
+                                         @DefaultValue Limit read,
+                                         @DefaultValue Limit write) {
+
+    public record Limit(@DefaultValue("50") int initialLimit,
+                        @DefaultValue("20") int minLimit,
+                        @DefaultValue("200") int maxLimit,
+                        @DefaultValue("0.5") double smoothing) {
+
+        public Limit {
+            if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+                throw new IllegalArgumentException(
+                        "Concurrency limits must satisfy 1 <= min-limit <= initial-limit <= max-limit");
+            }
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("Concurrency limit smoothing must be in (0, 1]");
+            }
+        }
+    }
+}
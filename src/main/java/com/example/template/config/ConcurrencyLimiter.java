@@ -0,0 +1,101 @@
+package com.example.template.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps in-flight requests at a limit that follows TCP Vegas: the shortest recent latency is taken
+ * as the no-load latency, and {@code limit * (1 - noLoad / latency)} estimates how many requests
+ * are queued rather than being served. A short queue grows the limit, a long queue or a dropped
+ * request (server error) shrinks it, so when the database slows down the limit falls and excess
+ * requests are rejected instead of piling up on Tomcat threads.
+ *
+ * <p>Samples taken while less than half the limit is in use say nothing about capacity and are
+ * ignored. The no-load latency is re-measured every {@code PROBE_MULTIPLIER * limit} samples so a
+ * lasting shift in baseline latency is not mistaken for queueing.
+ */
+public class ConcurrencyLimiter {
+
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private long noLoadNanos;
+    private long samplesUntilProbe;
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties.Limit settings) {
+        this.minLimit = settings.minLimit();
+        this.maxLimit = settings.maxLimit();
+        this.smoothing = settings.smoothing();
+        this.limit = settings.initialLimit();
+        this.samplesUntilProbe = nextProbe(settings.initialLimit());
+    }
+
+    /**
+     * Takes an in-flight slot, or returns {@code false} if the limit is reached. Every successful
+     * call must be followed by {@link #release}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    public void release(long latencyNanos, boolean dropped) {
+        int current = inFlight.getAndDecrement();
+        update(Math.max(1, latencyNanos), current, dropped);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long latencyNanos, int inFlightAtCompletion, boolean dropped) {
+        if (--samplesUntilProbe <= 0) {
+            noLoadNanos = 0;
+            samplesUntilProbe = nextProbe(limit);
+        }
+        if (noLoadNanos == 0 || latencyNanos < noLoadNanos) {
+            noLoadNanos = latencyNanos;
+        }
+
+        double current = limit;
+        double log = Math.max(1, Math.log10(current));
+        double target;
+        if (dropped) {
+            target = current - log;
+        } else if (inFlightAtCompletion * 2 < current) {
+            return;
+        } else {
+            double queue = Math.ceil(current * (1 - (double) noLoadNanos / latencyNanos));
+            if (queue <= log) {
+                target = current + 6 * log;
+            } else if (queue < 3 * log) {
+                target = current + log;
+            } else if (queue > 6 * log) {
+                target = current - log;
+            } else {
+                return;
+            }
+        }
+
+        target = Math.max(minLimit, Math.min(maxLimit, target));
+        limit = (1 - smoothing) * current + smoothing * target;
+    }
+
+    private static long nextProbe(double limit) {
+        return (long) (PROBE_MULTIPLIER * limit);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.template.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes {@link LocalDateTime} as the same text {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}
+ * produces, digit by digit into a small buffer. Going through the formatter was the largest
+ * cost of serializing a page of users (two timestamps per user).
+ *
+ * <p>Only the default ISO case is handled here: a {@code @JsonFormat} pattern, timestamp output
+ * and years outside 0000-9999 all fall back to Jackson's serializer.
+ */
+public class IsoLocalDateTimeSerializer extends LocalDateTimeSerializer {
+
+    public static final IsoLocalDateTimeSerializer INSTANCE = new IsoLocalDateTimeSerializer();
+
+    private IsoLocalDateTimeSerializer() {
+        super();
+    }
+
+    private IsoLocalDateTimeSerializer(IsoLocalDateTimeSerializer base, Boolean useTimestamp, Boolean useNanoseconds,
+                                       DateTimeFormatter formatter) {
+        super(base, useTimestamp, useNanoseconds, formatter);
+    }
+
+    // Contextual copies (per property) keep this type, so the fast path survives createContextual.
+    @Override
+    protected IsoLocalDateTimeSerializer withFormat(Boolean useTimestamp, DateTimeFormatter formatter,
+                                                    JsonFormat.Shape shape) {
+        return new IsoLocalDateTimeSerializer(this, useTimestamp, _useNanoseconds, formatter);
+    }
+
+    @Override
+    protected IsoLocalDateTimeSerializer withFeatures(Boolean writeZoneId, Boolean writeNanoseconds) {
+        return new IsoLocalDateTimeSerializer(this, _useTimestamp, writeNanoseconds, _formatter);
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        int year = value.getYear();
+        if (_formatter != null || year < 0 || year > 9999 || useTimestamp(provider)) {
+            super.serialize(value, generator, provider);
+            return;
+        }
+
+        char[] text = new char[29];
+        digits(text, 0, year, 4);
+        text[4] = '-';
+        digits(text, 5, value.getMonthValue(), 2);
+        text[7] = '-';
+        digits(text, 8, value.getDayOfMonth(), 2);
+        text[10] = 'T';
+        digits(text, 11, value.getHour(), 2);
+        text[13] = ':';
+        digits(text, 14, value.getMinute(), 2);
+        text[16] = ':';
+        digits(text, 17, value.getSecond(), 2);
+
+        // Like the ISO formatter: seconds always, then only the significant fraction digits
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            text[length++] = '.';
+            for (int unit = 100_000_000; nano > 0; unit /= 10) {
+                text[length++] = (char) ('0' + nano / unit);
+                nano %= unit;
+            }
+        }
+        generator.writeString(text, 0, length);
+    }
+
+    private static void digits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
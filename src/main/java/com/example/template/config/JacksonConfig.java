@@ -0,0 +1,44 @@
+package com.example.template.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lets callers negotiate Smile ({@code application/x-jackson-smile}) or CBOR
+ * ({@code application/cbor}) instead of JSON, for requests and responses alike. JSON stays the
+ * default for {@code Accept: *}{@code /*}.
+ *
+ * <p>The binary mappers are built from Boot's {@link Jackson2ObjectMapperBuilder}, so they share
+ * the {@code spring.jackson.*} settings and modules of the JSON mapper, including the
+ * {@link IsoLocalDateTimeSerializer}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    // Registered after the JavaTimeModule, so it takes precedence for LocalDateTime.
+    @Bean
+    public Module isoLocalDateTimeModule() {
+        return new SimpleModule("iso-local-date-time")
+                .addSerializer(LocalDateTime.class, IsoLocalDateTimeSerializer.INSTANCE);
+    }
+
+    // Boot replaces the MVC default converters of the same type with these beans, in place.
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.template.config;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The Jackson formats a response body can be negotiated into (see {@link JacksonConfig}). Each
+ * format is a separate representation, so a strong ETag must differ between them: Smile and CBOR
+ * bodies carry the tag with a {@code +smile} or {@code +cbor} suffix, JSON keeps it as issued.
+ */
+public enum NegotiatedFormat {
+
+    JSON(MediaType.APPLICATION_JSON, null),
+    SMILE(new MediaType("application", "x-jackson-smile"), "smile"),
+    CBOR(MediaType.APPLICATION_CBOR, "cbor");
+
+    private final MediaType mediaType;
+    private final String suffix;
+
+    NegotiatedFormat(MediaType mediaType, String suffix) {
+        this.mediaType = mediaType;
+        this.suffix = suffix;
+    }
+
+    /**
+     * The format of a body written as {@code contentType}.
+     */
+    public static NegotiatedFormat of(MediaType contentType) {
+        if (contentType != null) {
+            for (NegotiatedFormat format : values()) {
+                if (format.mediaType.isCompatibleWith(contentType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * The format content negotiation picks for an {@code Accept} header: the highest quality, most
+     * specific acceptable type wins, and JSON for wildcards, a missing or an unparsable header.
+     */
+    public static NegotiatedFormat requested(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+                .thenComparing(MediaType::isWildcardType)
+                .thenComparing(MediaType::isWildcardSubtype));
+        for (MediaType type : accepted) {
+            for (NegotiatedFormat format : values()) {
+                if (type.getQualityValue() > 0 && type.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+    /**
+     * The tag of this format's representation, given the tag of any of them.
+     */
+    public String etag(String etag) {
+        String tag = base(etag);
+        if (suffix == null || !tag.endsWith("\"")) {
+            return tag;
+        }
+        return tag.substring(0, tag.length() - 1) + "+" + suffix + "\"";
+    }
+
+    /**
+     * Strips the format suffix, giving the tag as issued for the resource.
+     */
+    public static String base(String etag) {
+        for (NegotiatedFormat format : values()) {
+            if (format.suffix != null && etag.endsWith("+" + format.suffix + "\"")) {
+                return etag.substring(0, etag.length() - format.suffix.length() - 2) + "\"";
+            }
+        }
+        return etag;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.template.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks every body written by a Jackson converter as negotiated: adds {@code Vary: Accept}, so
+ * shared caches keep JSON, Smile and CBOR apart, and gives its ETag the suffix of the format that
+ * was actually written (see {@link NegotiatedFormat}).
+ *
+ * <p>Conditional GETs set their validators on the servlet response before the body exists, while
+ * {@code ResponseEntity} headers are still pending here, so both places are checked.
+ */
+@ControllerAdvice
+public class NegotiatedFormatAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        HttpServletResponse servletResponse = response instanceof ServletServerHttpResponse servlet
+                ? servlet.getServletResponse() : null;
+
+        if (headers.getVary().stream().noneMatch(HttpHeaders.ACCEPT::equalsIgnoreCase)) {
+            if (servletResponse != null) {
+                servletResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            } else {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+
+        String etag = headers.getETag();
+        if (etag != null) {
+            String negotiated = NegotiatedFormat.of(selectedContentType).etag(etag);
+            if (servletResponse != null && servletResponse.getHeader(HttpHeaders.ETAG) != null) {
+                servletResponse.setHeader(HttpHeaders.ETAG, negotiated);
+            } else {
+                headers.setETag(negotiated);
+            }
+        }
+        return body;
+    }
+}
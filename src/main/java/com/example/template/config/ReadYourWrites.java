@@ -0,0 +1,64 @@
+package com.example.template.config;
+
+/**
+ * Per-thread read-your-writes state for {@link ReplicaRoutingDataSource}. A session opened by
+ * {@link ReadYourWritesFilter} (or by any other unit of work) is pinned to the primary once it
+ * writes, or from the start if the client wrote recently; pinned sessions never read from a
+ * replica. Threads without an open session are never pinned.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {}
+
+    /**
+     * Opens a session on this thread; {@code onFirstWrite} runs once when the session first writes.
+     */
+    public static Session open(boolean pinned, Runnable onFirstWrite) {
+        Session session = new Session(CURRENT.get(), pinned, onFirstWrite);
+        CURRENT.set(session);
+        return session;
+    }
+
+    static boolean isPinned() {
+        Session session = CURRENT.get();
+        return session != null && session.pinned;
+    }
+
+    static void recordWrite() {
+        Session session = CURRENT.get();
+        if (session != null && !session.wrote) {
+            session.wrote = true;
+            session.pinned = true;
+            session.onFirstWrite.run();
+        }
+    }
+
+    public static final class Session implements AutoCloseable {
+
+        private final Session parent;
+        private final Runnable onFirstWrite;
+        private boolean pinned;
+        private boolean wrote;
+
+        private Session(Session parent, boolean pinned, Runnable onFirstWrite) {
+            this.parent = parent;
+            this.pinned = pinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+
+        public boolean hasWritten() {
+            return wrote;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
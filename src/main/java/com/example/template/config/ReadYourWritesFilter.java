@@ -0,0 +1,70 @@
+package com.example.template.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Opens a {@link ReadYourWrites} session per request. The first write sets a cookie that pins
+ * the client's reads to the primary for {@code stickyWindow}, long enough for replicas to catch
+ * up, so a client that just wrote reads its own write on the next request too. A zero window
+ * disables stickiness.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE_NAME = "read-primary-until";
+
+    private final Duration stickyWindow;
+
+    public ReadYourWritesFilter(Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return stickyWindow.isZero();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (ReadYourWrites.Session session = ReadYourWrites.open(pinned(request), () -> pin(request, response))) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static boolean pinned(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue()) > System.currentTimeMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Runs inside the write, before the controller has written the response, so headers can still be set
+    private void pin(HttpServletRequest request, HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(System.currentTimeMillis() + stickyWindow.toMillis()));
+        cookie.setMaxAge((int) Math.max(1, (stickyWindow.toMillis() + 999) / 1000));
+        cookie.setPath(request.getContextPath().isEmpty() ? "/" : request.getContextPath());
+        cookie.setHttpOnly(true);
+        response.addCookie(cookie);
+    }
+}
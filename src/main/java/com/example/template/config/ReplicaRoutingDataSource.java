@@ -0,0 +1,161 @@
+package com.example.template.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round robin, and everything
+ * else to the primary. It must sit behind a {@link LazyConnectionDataSourceProxy}: the
+ * transaction's read-only flag is only visible once the first statement needs a connection.
+ *
+ * <p>Reads stay on the primary when the current {@link ReadYourWrites} session is pinned. A
+ * replica that fails to hand out a connection is excluded at once and the read falls back to the
+ * primary; replicas are probed every {@code healthCheckInterval} and re-included once they answer.
+ * Health is exported as {@code datasource.replica.healthy} (1 or 0, tagged by replica).
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration healthCheckTimeout;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration healthCheckInterval,
+                                    Duration healthCheckTimeout, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.healthCheckTimeout = healthCheckTimeout;
+        this.replicas = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + (i + 1), replicas.get(i));
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica receives read-only transactions")
+                    .tag("replica", replica.name)
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        }
+
+        this.healthChecks = Executors.newSingleThreadScheduledExecutor(healthCheckThreadFactory());
+        long interval = healthCheckInterval.toMillis();
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!routeToReplica()) {
+            return primary.getConnection();
+        }
+        Replica replica = nextHealthyReplica();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        throw new UnsupportedOperationException("Routed connections use the pools' own credentials");
+    }
+
+    /**
+     * Probes every replica, excluding the ones that do not answer and re-including the ones that do.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid((int) Math.max(1, healthCheckTimeout.toSeconds()))) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica {} is healthy again and receives reads", replica.name);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        healthChecks.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static boolean routeToReplica() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return false;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            ReadYourWrites.recordWrite();
+            return false;
+        }
+        return !ReadYourWrites.isPinned();
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static void markDown(Replica replica, Exception e) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} excluded from reads: {}", replica.name, e.getMessage());
+        }
+    }
+
+    private static CustomizableThreadFactory healthCheckThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-health-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.template.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas for {@link ReplicaRoutingDataSource}. {@code stickyWindow} is how long a client
+ * keeps reading from the primary after a write (0 disables read-your-writes stickiness);
+ * {@code healthCheckInterval} is how often replicas are probed to be excluded or re-included.
+ */
+@ConfigurationProperties("app.datasource.routing")
+public record ReplicaRoutingProperties(@DefaultValue("false") boolean enabled,
+                                       List<Replica> replicas,
+                                       @DefaultValue("2s") Duration stickyWindow,
+                                       @DefaultValue("5s") Duration healthCheckInterval,
+                                       @DefaultValue("1s") Duration healthCheckTimeout) {
+
+    public ReplicaRoutingProperties {
+        replicas = replicas == null ? List.of() : List.copyOf(replicas);
+    }
+
+    /**
+     * {@code connectionTimeout} bounds how long a read waits for a replica connection before it
+     * falls back to the primary.
+     */
+    public record Replica(String url, String username, String password,
+                          @DefaultValue("10") int maximumPoolSize,
+                          @DefaultValue("1s") Duration connectionTimeout) {
+    }
+}
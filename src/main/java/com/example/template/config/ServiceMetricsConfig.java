@@ -0,0 +1,48 @@
+package com.example.template.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.aop.support.annotation.AnnotationClassFilter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Applies {@link ServiceMetricsInterceptor} to the {@code @Service} beans of this application.
+ * Registered as an infrastructure advisor, so it joins the proxy the transaction advisor already
+ * creates instead of adding a second one, and is ordered outside it so timings include commits.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ServiceMetricsConfig {
+
+    private static final String SERVICE_PACKAGE = "com.example.template.service.";
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        ClassFilter services = new AnnotationClassFilter(Service.class, true);
+        ComposablePointcut pointcut = new ComposablePointcut(services)
+                .intersection((ClassFilter) type -> type.getName().startsWith(SERVICE_PACKAGE))
+                .intersection(new StaticMethodMatcher() {
+                    @Override
+                    public boolean matches(Method method, Class<?> targetClass) {
+                        return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+                    }
+                });
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new ServiceMetricsInterceptor(meterRegistry));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.template.config;
+
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.exception.ResourceAlreadyExistsException;
+import com.example.template.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Times every public service method ({@code users.service.invocations}, tagged by service, method
+ * and parameter types, so overloads such as the offset, count-free and keyset
+ * {@code getActiveUsers} get separate series) and counts the outcomes clients see as 201, 404 and 409: {@code users.created},
+ * {@code users.not.found} and {@code users.conflicts}. An empty {@link Optional} counts as not
+ * found; batch responses contribute their per-item created and conflict counts.
+ *
+ * <p>Meters are registered once per method on its first call. After that, recording is a map
+ * lookup and two clock reads; tags are never built per request.
+ */
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public ServiceMetricsInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Meters methodMeters = meters.get(invocation.getMethod());
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(invocation.getMethod(), this::register);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodMeters.count(result);
+            return result;
+        } catch (ResourceNotFoundException e) {
+            methodMeters.notFound.increment();
+            throw e;
+        } catch (ResourceAlreadyExistsException | DataIntegrityViolationException
+                 | OptimisticLockingFailureException e) {
+            methodMeters.conflicts.increment();
+            throw e;
+        } finally {
+            methodMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Meters register(Method method) {
+        MeterRegistry registry = meterRegistry.getObject();
+        String service = method.getDeclaringClass().getSimpleName();
+        String name = method.getName();
+        return new Meters(
+                Timer.builder("users.service.invocations")
+                        .description("Service method latency")
+                        .tags("service", service, "method", name, "signature", signature(method))
+                        .publishPercentileHistogram()
+                        .register(registry),
+                name.startsWith("create")
+                        ? Counter.builder("users.created").tags("method", name).register(registry)
+                        : null,
+                Counter.builder("users.not.found").tags("method", name).register(registry),
+                Counter.builder("users.conflicts").tags("method", name).register(registry));
+    }
+
+    private static String signature(Method method) {
+        return Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(","));
+    }
+
+    private record Meters(Timer timer, Counter created, Counter notFound, Counter conflicts) {
+
+        void count(Object result) {
+            if (result instanceof Optional<?> optional && optional.isEmpty()) {
+                notFound.increment();
+            } else if (result instanceof BatchCreateResponse batch) {
+                created.increment(batch.getCreated());
+                conflicts.increment(batch.getConflicts());
+            } else if (created != null && result != null) {
+                created.increment();
+            }
+        }
+    }
+}
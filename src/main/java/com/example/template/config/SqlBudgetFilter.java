@@ -0,0 +1,81 @@
+package com.example.template.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts the SQL statements behind each request and checks them against the endpoint's budget.
+ * Every request records {@code sql.statements.per.request}; going over budget also increments
+ * {@code sql.budget.exceeded} and logs a warning. Both are tagged by route pattern, never by the
+ * raw URI, so the tag set stays bounded. Work that finishes on an async thread (streamed
+ * exports) is not counted.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlBudgetFilter.class);
+
+    private final SqlBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public SqlBudgetFilter(SqlBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            filterChain.doFilter(request, response);
+            check(request, scope.count());
+        }
+    }
+
+    private void check(HttpServletRequest request, int statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + pattern;
+        Meters endpointMeters = meters.get(endpoint);
+        if (endpointMeters == null) {
+            endpointMeters = meters.computeIfAbsent(endpoint, this::register);
+        }
+
+        endpointMeters.statements.record(statements);
+        int budget = properties.budgetFor(endpoint);
+        if (statements > budget) {
+            endpointMeters.exceeded.increment();
+            log.warn("{} executed {} SQL statements, budget is {}", endpoint, statements, budget);
+        }
+    }
+
+    private Meters register(String endpoint) {
+        return new Meters(
+                DistributionSummary.builder("sql.statements.per.request")
+                        .description("SQL statements executed per request")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry),
+                Counter.builder("sql.budget.exceeded")
+                        .description("Requests that executed more SQL statements than their budget")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry));
+    }
+
+    private record Meters(DistributionSummary statements, Counter exceeded) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.template.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * SQL statements a request may execute, keyed by {@code "<METHOD> <route pattern>"}, for
+ * example {@code "PATCH /api/users/{id}/activate"}. Routes without an entry get the default.
+ */
+@ConfigurationProperties("app.sql")
+public record SqlBudgetProperties(@DefaultValue("20") int defaultBudget, Map<String, Integer> budgets) {
+
+    public SqlBudgetProperties {
+        budgets = budgets == null ? Map.of() : Map.copyOf(budgets);
+    }
+
+    public int budgetFor(String endpoint) {
+        return budgets.getOrDefault(endpoint, defaultBudget);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.template.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a {@link Scope} is
+ * open. Installed as Hibernate's {@link StatementInspector}; statements pass through unchanged.
+ * Plain JDBC writes (the batch insert repository) bypass Hibernate and are not counted.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count++;
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting on this thread. Scopes nest; a closed scope adds its count to the
+     * enclosing one.
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                parent.count += count;
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -1,35 +1,84 @@
 package com.example.template.controller;
 
+import com.example.template.config.NegotiatedFormat;
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BulkUpdateResponse;
+import com.example.template.dto.BulkUserRequest;
+import com.example.template.dto.CreateUserRequest;
+import com.example.template.dto.CursorPage;
+import com.example.template.dto.DataFormat;
+import com.example.template.dto.ImportReport;
+import com.example.template.dto.TotalCount;
+import com.example.template.dto.UserAvailability;
 import com.example.template.dto.UserDto;
+import com.example.template.dto.UserPatch;
+import com.example.template.dto.UserVersion;
+import com.example.template.events.UserChangeStream;
+import com.example.template.exception.PreconditionFailedException;
+import com.example.template.exception.ResourceAlreadyExistsException;
+import com.example.template.exception.ResourceNotFoundException;
+import com.example.template.service.UserBatchService;
+import com.example.template.service.UserExportService;
+import com.example.template.service.UserImportService;
 import com.example.template.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/users")
 @Tag(name = "User Management", description = "APIs for managing users")
 public class UserController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // Clients may keep responses but must revalidate them with If-None-Match / If-Modified-Since.
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+
     private final UserService userService;
+    private final UserBatchService userBatchService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserChangeStream userChangeStream;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserBatchService userBatchService,
+                          UserExportService userExportService, UserImportService userImportService,
+                          UserChangeStream userChangeStream) {
         this.userService = userService;
+        this.userBatchService = userBatchService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.userChangeStream = userChangeStream;
     }
 
     @PostMapping
@@ -53,58 +102,244 @@ public class UserController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create users in bulk",
+            description = "Creates many users in one request; each item reports created, conflict or invalid")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Batch too large")
+    })
+    public ResponseEntity<BatchCreateResponse> createUsers(@RequestBody List<CreateUserRequest> requests) {
+        return ResponseEntity.ok(userBatchService.createUsers(requests));
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @Operation(summary = "Import users",
+            description = "Streams an NDJSON or CSV upload (header: username,email,password) into the database in "
+                    + "committed chunks and reports created, conflicting and invalid rows")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see report"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid CSV header"),
+            @ApiResponse(responseCode = "503", description = "Password hashing overloaded; rows before "
+                    + "resumeFromRow were imported, re-send the rest after Retry-After")
+    })
+    public ResponseEntity<ImportReport> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                    InputStream body) throws IOException {
+        ImportReport report = userImportService.importUsers(DataFormat.fromContentType(contentType), body);
+        if (report.getResumeFromRow() != null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(report.getRetryAfterSeconds()))
+                    .body(report);
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @PatchMapping("/bulk/activate")
+    @Operation(summary = "Activate users in bulk",
+            description = "Activates the users given by id list or search filter with chunked set-based updates")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users activated, see affected count"),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and search given, or too many ids")
+    })
+    public ResponseEntity<BulkUpdateResponse> activateUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userBatchService.activateUsers(request));
+    }
+
+    @PatchMapping("/bulk/deactivate")
+    @Operation(summary = "Deactivate users in bulk",
+            description = "Deactivates the users given by id list or search filter with chunked set-based updates")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users deactivated, see affected count"),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and search given, or too many ids")
+    })
+    public ResponseEntity<BulkUpdateResponse> deactivateUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userBatchService.deactivateUsers(request));
+    }
+
+    @PostMapping("/bulk/delete")
+    @Operation(summary = "Delete users in bulk",
+            description = "Permanently deletes the users given by id list or search filter with chunked set-based deletes")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users deleted, see affected count"),
+            @ApiResponse(responseCode = "400", description = "Neither or both of ids and search given, or too many ids")
+    })
+    public ResponseEntity<BulkUpdateResponse> deleteUsers(@RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userBatchService.deleteUsers(request));
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique identifier")
+    @Operation(summary = "Get user by ID", description = "Retrieves a user by their unique identifier. "
+            + "Honors If-None-Match and If-Modified-Since without loading the user.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found"),
+            @ApiResponse(responseCode = "304", description = "User not modified"),
             @ApiResponse(responseCode = "404", description = "User not found")
     })
-    public ResponseEntity<UserDto> getUserById(@Parameter(description = "User ID") @PathVariable Long id) {
-        Optional<UserDto> user = userService.getUserById(id);
-        return user.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<UserDto> getUserById(@Parameter(description = "User ID") @PathVariable Long id,
+                                               ServletWebRequest request) {
+        return conditionalUser(request, () -> userService.getUserVersion(id), () -> userService.getUserById(id));
     }
 
     @GetMapping("/username/{username}")
-    @Operation(summary = "Get user by username", description = "Retrieves a user by their username")
-    public ResponseEntity<UserDto> getUserByUsername(@Parameter(description = "Username") @PathVariable String username) {
-        Optional<UserDto> user = userService.getUserByUsername(username);
-        return user.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+    @Operation(summary = "Get user by username", description = "Retrieves a user by their username. "
+            + "Honors If-None-Match and If-Modified-Since without loading the user.")
+    public ResponseEntity<UserDto> getUserByUsername(@Parameter(description = "Username") @PathVariable String username,
+                                                     ServletWebRequest request) {
+        return conditionalUser(request, () -> userService.getUserVersionByUsername(username),
+                () -> userService.getUserByUsername(username));
+    }
+
+    @GetMapping("/availability")
+    @Operation(summary = "Check username/email availability",
+            description = "Reports whether a username and/or email is still free. Names that were never taken are "
+                    + "answered from an in-memory Bloom filter without a database query.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Availability checked"),
+            @ApiResponse(responseCode = "400", description = "Neither username nor email given")
+    })
+    public ResponseEntity<UserAvailability> checkAvailability(@RequestParam(required = false) String username,
+                                                              @RequestParam(required = false) String email) {
+        username = username == null || username.isBlank() ? null : username;
+        email = email == null || email.isBlank() ? null : email;
+        if (username == null && email == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.checkAvailability(username, email));
     }
 
     @GetMapping
     @Operation(summary = "Get all users", description = "Retrieves a paginated list of all users")
-    public ResponseEntity<Page<UserDto>> getAllUsers(
+    public ResponseEntity<Slice<UserDto>> getAllUsers(
             @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
-            @RequestParam(required = false) String search) {
-        
-        Page<UserDto> users;
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Total count mode: exact (COUNT query), approximate (cached) or none (has-next only)")
+            @RequestParam(defaultValue = "exact") String total,
+            WebRequest request) {
+
+        TotalCount totalCount = TotalCount.parse(total);
+        boolean searching = search != null && !search.trim().isEmpty();
+
+        Slice<UserDto> users;
+        if (totalCount == TotalCount.EXACT) {
+            users = searching ? userService.searchUsers(search.trim(), pageable) : userService.getActiveUsers(pageable);
+        } else {
+            users = searching
+                    ? userService.searchUsers(search.trim(), pageable, totalCount)
+                    : userService.getActiveUsers(pageable, totalCount);
+        }
+        String pageState = users.getNumber() + ":" + users.getSize() + ":" + users.getSort() + ":" + users.hasNext()
+                + (users instanceof Page<UserDto> page ? ":" + page.getTotalElements() : "");
+        Slice<UserDto> body = users;
+        return conditional(request, UserVersion.etag(users.getContent(), pageState), -1, () -> Optional.of(body));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "Get all users by cursor",
+            description = "Retrieves active users newest first using keyset pagination. Pass an empty cursor for the "
+                    + "first page and the returned nextCursor for the following ones.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users found"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    public ResponseEntity<CursorPage<UserDto>> getUsersByCursor(
+            @Parameter(description = "Opaque cursor from a previous response") @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String search,
+            WebRequest request) {
+
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        CursorPage<UserDto> users;
         if (search != null && !search.trim().isEmpty()) {
-            users = userService.searchUsers(search.trim(), pageable);
+            users = userService.searchUsers(search.trim(), cursor, size);
         } else {
-            users = userService.getActiveUsers(pageable);
+            users = userService.getActiveUsers(cursor, size);
         }
-        return ResponseEntity.ok(users);
+        String pageState = size + ":" + users.getNextCursor();
+        CursorPage<UserDto> body = users;
+        return conditional(request, UserVersion.etag(users.getContent(), pageState), -1, () -> Optional.of(body));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export users", description = "Streams all users as NDJSON or CSV in a single response")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid export format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Only export active users") @RequestParam(defaultValue = "false") boolean activeOnly) {
+
+        DataFormat exportFormat = DataFormat.parse(format);
+        StreamingResponseBody body = out -> userExportService.exportUsers(exportFormat, activeOnly, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("users." + exportFormat.getExtension()).build().toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream user changes",
+            description = "Server-Sent Events stream of committed created, updated, activated, deactivated and "
+                    + "deleted events. Reconnect with Last-Event-ID to replay missed events; a reset event "
+                    + "means they are no longer available and the client should reload.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers")
+    })
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return userChangeStream.subscribe(lastEventId);
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update user", description = "Updates an existing user's information")
+    @Operation(summary = "Update user", description = "Updates an existing user's information. "
+            + "With If-Match, only updates the version that ETag names.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User updated successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid input data"),
             @ApiResponse(responseCode = "404", description = "User not found"),
-            @ApiResponse(responseCode = "409", description = "Username or email already exists")
+            @ApiResponse(responseCode = "409", description = "Username or email already exists, or concurrent update"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
     public ResponseEntity<UserDto> updateUser(@Parameter(description = "User ID") @PathVariable Long id, 
-                                            @Valid @RequestBody UserDto userDto) {
+                                            @Valid @RequestBody UserDto userDto,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            UserDto updatedUser = userService.updateUser(id, userDto);
-            return ResponseEntity.ok(updatedUser);
+            UserDto updatedUser = userService.updateUser(id, userDto, expectedVersion(id, ifMatch));
+            return ResponseEntity.ok().eTag(UserVersion.of(updatedUser).etag()).body(updatedUser);
+        } catch (ResourceAlreadyExistsException | PreconditionFailedException | OptimisticLockingFailureException e) {
+            throw e;
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping(value = "/{id}", consumes = UserPatch.MEDIA_TYPE)
+    @Operation(summary = "Patch user", description = "Applies a JSON Merge Patch: only the fields sent are "
+            + "validated and written. With If-Match, only patches the version that ETag names.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User patched successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid field value, or a field set to null"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "409", description = "Username or email already exists, or concurrent update"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
+    })
+    public ResponseEntity<UserDto> patchUser(@Parameter(description = "User ID") @PathVariable Long id,
+                                             @Valid @RequestBody UserPatch patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            UserDto patchedUser = userService.patchUser(id, patch, expectedVersion(id, ifMatch));
+            return ResponseEntity.ok().eTag(UserVersion.of(patchedUser).etag()).body(patchedUser);
+        } catch (ResourceAlreadyExistsException | PreconditionFailedException | OptimisticLockingFailureException e) {
+            throw e;
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.notFound().build();
         } catch (RuntimeException e) {
-            if (e.getMessage().contains("not found")) {
-                return ResponseEntity.notFound().build();
-            }
             return ResponseEntity.badRequest().build();
         }
     }
@@ -125,24 +360,109 @@ public class UserController {
     }
 
     @PatchMapping("/{id}/deactivate")
-    @Operation(summary = "Deactivate user", description = "Deactivates a user account")
-    public ResponseEntity<Void> deactivateUser(@Parameter(description = "User ID") @PathVariable Long id) {
+    @Operation(summary = "Deactivate user", description = "Deactivates a user account. "
+            + "With If-Match, only if the user is still at that ETag's version.")
+    public ResponseEntity<Void> deactivateUser(@Parameter(description = "User ID") @PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            userService.deactivateUser(id);
-            return ResponseEntity.noContent().build();
+            UserVersion version = userService.deactivateUser(id, expectedVersion(id, ifMatch));
+            return ResponseEntity.noContent().eTag(version.etag()).build();
+        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
     @PatchMapping("/{id}/activate")
-    @Operation(summary = "Activate user", description = "Activates a user account")
-    public ResponseEntity<Void> activateUser(@Parameter(description = "User ID") @PathVariable Long id) {
+    @Operation(summary = "Activate user", description = "Activates a user account. "
+            + "With If-Match, only if the user is still at that ETag's version.")
+    public ResponseEntity<Void> activateUser(@Parameter(description = "User ID") @PathVariable Long id,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            userService.activateUser(id);
-            return ResponseEntity.noContent().build();
+            UserVersion version = userService.activateUser(id, expectedVersion(id, ifMatch));
+            return ResponseEntity.noContent().eTag(version.etag()).build();
+        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+            throw e;
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    // If-Match carries ETags issued by UserVersion ("<id>-<version>", with a format suffix when
+    // read as Smile or CBOR). Absent or "*" means the
+    // write is unconditional; otherwise the first strong tag for this user names the version.
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = NegotiatedFormat.base(tag.trim());
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // not one of our tags, keep looking
+                }
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not name a version of user " + id);
+    }
+
+    // checkNotModified evaluates If-None-Match / If-Modified-Since and, for GET, also sets the
+    // ETag and Last-Modified response headers, so the body is only produced when it is needed.
+    private static <T> ResponseEntity<T> conditional(WebRequest request, String etag, long lastModified,
+                                                     Supplier<Optional<T>> body) {
+        if (request.checkNotModified(negotiated(request, etag), lastModified)) {
+            return notModified();
+        }
+        return body.get()
+                .map(value -> ResponseEntity.ok().cacheControl(REVALIDATE).body(value))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // The version lookup only decides the 304, so it is skipped for requests without validators,
+    // which would load the user anyway. The user is loaded in another transaction, possibly from
+    // UserCache, and may be newer, so a 200 carries the validators of the user it returns instead
+    // of the ones checkNotModified already wrote to the response. The tag written must be the
+    // negotiated one: HttpEntityMethodProcessor compares it with If-None-Match once more.
+    private static ResponseEntity<UserDto> conditionalUser(ServletWebRequest request,
+                                                           Supplier<Optional<UserVersion>> version,
+                                                           Supplier<Optional<UserDto>> user) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<UserVersion> current = version.get();
+            if (current.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(negotiated(request, current.get().etag()), current.get().lastModified())) {
+                return notModified();
+            }
+        }
+        return user.get()
+                .map(value -> {
+                    UserVersion returned = UserVersion.of(value);
+                    HttpServletResponse response = request.getResponse();
+                    if (response != null) {
+                        response.setHeader(HttpHeaders.ETAG, negotiated(request, returned.etag()));
+                        if (returned.lastModified() >= 0) {
+                            response.setDateHeader(HttpHeaders.LAST_MODIFIED, returned.lastModified());
+                        }
+                    }
+                    return ResponseEntity.ok().cacheControl(REVALIDATE).body(value);
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Bodies are negotiated (JSON, Smile, CBOR) and each format has its own ETag, so If-None-Match is
+    // compared with the tag of the format this request will get. NegotiatedFormatAdvice settles
+    // the tag and Vary of a 200 from the format actually written.
+    private static String negotiated(WebRequest request, String etag) {
+        return NegotiatedFormat.requested(request.getHeader(HttpHeaders.ACCEPT)).etag(etag);
+    }
+
+    private static <T> ResponseEntity<T> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).varyBy(HttpHeaders.ACCEPT).build();
+    }
+}
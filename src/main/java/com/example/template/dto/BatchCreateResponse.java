@@ -0,0 +1,57 @@
+package com.example.template.dto;
+
+import java.util.List;
+
+public class BatchCreateResponse {
+
+    private long created;
+    private long conflicts;
+    private long invalid;
+    private List<BatchCreateResult> results;
+
+    public BatchCreateResponse() {}
+
+    public BatchCreateResponse(List<BatchCreateResult> results) {
+        this.results = results;
+        for (BatchCreateResult result : results) {
+            switch (result.getStatus()) {
+                case CREATED -> created++;
+                case CONFLICT -> conflicts++;
+                case INVALID -> invalid++;
+            }
+        }
+    }
+
+    // Getters and Setters
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<BatchCreateResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchCreateResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.template.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCreateResult {
+
+    public enum Status {
+        CREATED,
+        CONFLICT,
+        INVALID
+    }
+
+    private int index;
+    private Status status;
+    private UserDto user;
+    private String message;
+
+    public BatchCreateResult() {}
+
+    public BatchCreateResult(int index, Status status, UserDto user, String message) {
+        this.index = index;
+        this.status = status;
+        this.user = user;
+        this.message = message;
+    }
+
+    public static BatchCreateResult created(int index, UserDto user) {
+        return new BatchCreateResult(index, Status.CREATED, user, null);
+    }
+
+    public static BatchCreateResult conflict(int index, String message) {
+        return new BatchCreateResult(index, Status.CONFLICT, null, message);
+    }
+
+    public static BatchCreateResult invalid(int index, String message) {
+        return new BatchCreateResult(index, Status.INVALID, null, message);
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public UserDto getUser() {
+        return user;
+    }
+
+    public void setUser(UserDto user) {
+        this.user = user;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.template.dto;
+
+public class BulkUpdateResponse {
+
+    private long matched;
+    private long affected;
+    private int chunks;
+
+    public BulkUpdateResponse() {}
+
+    public BulkUpdateResponse(long matched, long affected, int chunks) {
+        this.matched = matched;
+        this.affected = affected;
+        this.chunks = chunks;
+    }
+
+    // Getters and Setters
+    public long getMatched() {
+        return matched;
+    }
+
+    public void setMatched(long matched) {
+        this.matched = matched;
+    }
+
+    public long getAffected() {
+        return affected;
+    }
+
+    public void setAffected(long affected) {
+        this.affected = affected;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+}
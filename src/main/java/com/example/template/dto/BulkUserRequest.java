@@ -0,0 +1,45 @@
+package com.example.template.dto;
+
+import java.util.List;
+
+/**
+ * Selects the users a bulk operation applies to: either an explicit id list or a search filter
+ * matching username or email (case-insensitive substring, active and inactive users alike).
+ */
+public class BulkUserRequest {
+
+    private List<Long> ids;
+    private String search;
+
+    public BulkUserRequest() {}
+
+    public BulkUserRequest(List<Long> ids, String search) {
+        this.ids = ids;
+        this.search = search;
+    }
+
+    public static BulkUserRequest ofIds(List<Long> ids) {
+        return new BulkUserRequest(ids, null);
+    }
+
+    public static BulkUserRequest matching(String search) {
+        return new BulkUserRequest(null, search);
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public String getSearch() {
+        return search;
+    }
+
+    public void setSearch(String search) {
+        this.search = search;
+    }
+}
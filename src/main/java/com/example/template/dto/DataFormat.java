@@ -0,0 +1,52 @@
+package com.example.template.dto;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+/**
+ * Wire format of bulk user exports and imports.
+ */
+public enum DataFormat {
+
+    /** One JSON object per line. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** RFC 4180 CSV with a header row. */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    DataFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static DataFormat parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid format: " + value + " (expected ndjson or csv)");
+        }
+    }
+
+    public static DataFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        for (DataFormat format : values()) {
+            if (MediaType.parseMediaType(format.contentType).isCompatibleWith(mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType + " (expected "
+                + NDJSON.contentType + " or " + CSV.contentType + ")");
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.template.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportReport {
+
+    private long rows;
+    private long created;
+    private long conflicts;
+    private long invalid;
+    private int chunks;
+    private List<BatchCreateResult> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    private Long resumeFromRow;
+    private Long retryAfterSeconds;
+
+    public ImportReport() {}
+
+    // Getters and Setters
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public long getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(long invalid) {
+        this.invalid = invalid;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public List<BatchCreateResult> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchCreateResult> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public Long getResumeFromRow() {
+        return resumeFromRow;
+    }
+
+    public void setResumeFromRow(Long resumeFromRow) {
+        this.resumeFromRow = resumeFromRow;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(Long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.template.dto;
+
+import java.util.Locale;
+
+/**
+ * How a paged listing computes its total element count.
+ */
+public enum TotalCount {
+
+    /** Run a COUNT query alongside the page query. */
+    EXACT,
+
+    /** Use a cached count that is maintained incrementally and refreshed in the background. */
+    APPROXIMATE,
+
+    /** Skip counting and only report whether a next page exists. */
+    NONE;
+
+    public static TotalCount parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid total mode: " + value + " (expected exact, approximate or none)");
+        }
+    }
+}
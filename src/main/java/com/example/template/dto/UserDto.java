@@ -21,16 +21,19 @@ public class UserDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private Boolean active;
+    private Long version;
 
     public UserDto() {}
 
-    public UserDto(Long id, String username, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Boolean active) {
+    public UserDto(Long id, String username, String email, LocalDateTime createdAt, LocalDateTime updatedAt, Boolean active,
+                   Long version) {
         this.id = id;
         this.username = username;
         this.email = email;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.active = active;
+        this.version = version;
     }
 
     // Getters and Setters
@@ -81,4 +84,12 @@ public class UserDto {
     public void setActive(Boolean active) {
         this.active = active;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.example.template.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.Optional;
+
+/**
+ * Body of a JSON Merge Patch (RFC 7396) for a user. A {@code null} field was not sent and is left
+ * as it is; an empty {@link Optional} is an explicit JSON {@code null}, which fails validation
+ * because username and email cannot be removed. Only the fields that were sent are validated.
+ */
+public class UserPatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private Optional<@NotBlank(message = "Username is required")
+                     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters") String> username;
+
+    private Optional<@NotBlank(message = "Email is required")
+                     @Email(message = "Email should be valid") String> email;
+
+    public UserPatch() {}
+
+    public static UserPatch of(String username, String email) {
+        UserPatch patch = new UserPatch();
+        patch.setUsername(username == null ? null : Optional.of(username));
+        patch.setEmail(email == null ? null : Optional.of(email));
+        return patch;
+    }
+
+    // Getters and Setters
+    public Optional<String> getUsername() {
+        return username;
+    }
+
+    public void setUsername(Optional<String> username) {
+        this.username = username;
+    }
+
+    public Optional<String> getEmail() {
+        return email;
+    }
+
+    public void setEmail(Optional<String> email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.template.dto;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Validators of a user representation: a strong ETag from id and version and Last-Modified from
+ * {@code updatedAt}. Small enough to be looked up on its own, so a conditional GET can be
+ * answered without loading or serializing the user.
+ */
+public record UserVersion(Long id, Long version, LocalDateTime updatedAt) {
+
+    public static UserVersion of(UserDto user) {
+        return new UserVersion(user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+
+    // The id is part of the tag because /username/{username} can resolve to another user over time.
+    public String etag() {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Strong ETag for a page of users, hashed from each user's id and version plus the page
+     * state the response carries alongside the content.
+     */
+    public static String etag(List<UserDto> users, String pageState) {
+        StringBuilder key = new StringBuilder(pageState);
+        for (UserDto user : users) {
+            key.append('|').append(user.getId()).append('-').append(user.getVersion());
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.template.events;
+
+import com.example.template.dto.UserDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One committed mutation of a user, as sent on the change stream. {@code user} is the state after
+ * the change and is {@code null} for deletions. A {@code RESET} event has no user: changes were
+ * committed that cannot be listed one by one, and subscribers should reload the users they track.
+ */
+public record UserChangeEvent(String id, Type type, Long userId, UserDto user, LocalDateTime occurredAt) {
+
+    public enum Type {
+        CREATED, UPDATED, ACTIVATED, DEACTIVATED, DELETED, RESET;
+
+        // SSE event name, so EventSource clients can addEventListener("deactivated", ...)
+        public String eventName() {
+            return name().toLowerCase();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.template.events;
+
+import com.example.template.dto.UserDto;
+import com.example.template.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fans committed user changes out to Server-Sent Events subscribers, so downstream services can
+ * follow writes instead of polling {@code GET /api/users}.
+ *
+ * <p>Every event gets an id of the form {@code <stream>-<sequence>} and is kept in a bounded
+ * history. A client reconnecting with {@code Last-Event-ID} is replayed what it missed; if that
+ * id is from another process or already fell out of the history it gets a {@code reset} event
+ * and should reload the users it tracks. Each subscriber has a bounded buffer drained on its own
+ * sender task, so a slow client never blocks a writer; when its buffer overflows the stream is
+ * completed and the client resumes from its last id. Counted in {@code users.changes.published}
+ * and {@code users.changes.dropped}; {@code users.changes.subscribers} is the number connected.
+ *
+ * <p>Each pod only streams the writes it committed itself.
+ */
+@Component
+public class UserChangeStream {
+
+    static final String RESET_EVENT = UserChangeEvent.Type.RESET.eventName();
+
+    private final String streamId = Long.toString(System.currentTimeMillis(), 36);
+    private final int bufferSize;
+    private final int historySize;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Duration retryAfter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<UserChangeEvent> history;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter published;
+    private final Counter dropped;
+    private long sequence;
+
+    public UserChangeStream(@Value("${app.users.changes.buffer-size:256}") int bufferSize,
+                            @Value("${app.users.changes.history-size:10000}") int historySize,
+                            @Value("${app.users.changes.max-subscribers:1000}") int maxSubscribers,
+                            @Value("${app.users.changes.timeout:30m}") Duration timeout,
+                            @Value("${app.users.changes.heartbeat:15s}") Duration heartbeat,
+                            @Value("${app.users.changes.retry-after:5s}") Duration retryAfter,
+                            MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.retryAfter = retryAfter;
+        this.history = new ArrayDeque<>(historySize);
+        // Senders block while a client's socket is full; there is at most one per subscriber.
+        this.sender = Executors.newCachedThreadPool(new CustomizableThreadFactory("user-changes-"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("user-changes-heartbeat-"));
+        if (!heartbeat.isZero()) {
+            heartbeats.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::heartbeat),
+                    heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        this.published = Counter.builder("users.changes.published")
+                .description("User change events published to the change stream")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("users.changes.dropped")
+                .description("Change stream subscribers disconnected because their buffer overflowed")
+                .register(meterRegistry);
+        Gauge.builder("users.changes.subscribers", subscribers, Set::size)
+                .description("Connected change stream subscribers")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes a change once the surrounding transaction commits; nothing is sent if it rolls
+     * back. Outside a transaction the change is published immediately.
+     */
+    public void publish(UserChangeEvent.Type type, Long userId, UserDto user) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            emit(type, userId, user);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                emit(type, userId, user);
+            }
+        });
+    }
+
+    /**
+     * Opens a stream for one client, replaying the events after {@code lastEventId} first.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(String lastEventId, SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new ServiceOverloadedException("Too many change stream subscribers, retry later", retryAfter);
+        }
+
+        lock.lock();
+        try {
+            List<UserChangeEvent> missed = missedSince(lastEventId);
+            // A reset carries the latest id, so the client resumes from here after reloading
+            Subscriber subscriber = new Subscriber(emitter, bufferSize + (missed == null ? 0 : missed.size()),
+                    missed == null ? streamId + "-" + sequence : null);
+            emitter.onCompletion(subscriber::close);
+            emitter.onTimeout(subscriber::close);
+            emitter.onError(e -> subscriber.close());
+            if (missed != null) {
+                missed.forEach(subscriber::offer);
+            } else {
+                subscriber.schedule();
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        sender.shutdown();
+    }
+
+    // Sequence, history and fan-out share one lock, so a subscriber joining mid-publish sees
+    // every event exactly once, either replayed or live.
+    private void emit(UserChangeEvent.Type type, Long userId, UserDto user) {
+        List<Subscriber> overflowed = new ArrayList<>();
+        lock.lock();
+        try {
+            UserChangeEvent event = new UserChangeEvent(streamId + "-" + (++sequence), type, userId, user,
+                    LocalDateTime.now());
+            if (history.size() == historySize) {
+                history.removeFirst();
+            }
+            history.addLast(event);
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(event)) {
+                    overflowed.add(subscriber);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        published.increment();
+        overflowed.forEach(this::drop);
+    }
+
+    // Events after lastEventId, or null when they can no longer be replayed.
+    private List<UserChangeEvent> missedSince(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return List.of();
+        }
+        long last = sequenceOf(lastEventId.trim());
+        long oldest = sequence - history.size() + 1;
+        if (last < 0 || last > sequence || last < oldest - 1) {
+            return null;
+        }
+        return history.stream().skip(last - oldest + 1).toList();
+    }
+
+    private long sequenceOf(String eventId) {
+        String prefix = streamId + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void drop(Subscriber subscriber) {
+        if (subscriber.close()) {
+            dropped.increment();
+            subscriber.emitter.complete();
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<UserChangeEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile String resetId;
+        private volatile boolean heartbeatPending;
+
+        Subscriber(SseEmitter emitter, int capacity, String resetId) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+            this.resetId = resetId;
+        }
+
+        boolean offer(UserChangeEvent event) {
+            if (!queue.offer(event)) {
+                return false;
+            }
+            schedule();
+            return true;
+        }
+
+        void heartbeat() {
+            heartbeatPending = true;
+            schedule();
+        }
+
+        // At most one drain task per subscriber, so events go out in order.
+        void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                sender.execute(this::drain);
+            }
+        }
+
+        boolean close() {
+            boolean wasOpen = closed.compareAndSet(false, true);
+            subscribers.remove(this);
+            return wasOpen;
+        }
+
+        private void drain() {
+            try {
+                do {
+                    sendPending();
+                    draining.set(false);
+                } while (!closed.get() && hasPending() && draining.compareAndSet(false, true));
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                close();
+            }
+        }
+
+        private boolean hasPending() {
+            return resetId != null || heartbeatPending || !queue.isEmpty();
+        }
+
+        private void sendPending() throws IOException {
+            String reset = resetId;
+            if (reset != null) {
+                resetId = null;
+                emitter.send(SseEmitter.event().id(reset).name(RESET_EVENT).data("Events were missed, reload and resume"));
+            }
+            UserChangeEvent event;
+            while (!closed.get() && (event = queue.poll()) != null) {
+                emitter.send(SseEmitter.event().id(event.id()).name(event.type().eventName()).data(event));
+            }
+            if (heartbeatPending) {
+                heartbeatPending = false;
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+}
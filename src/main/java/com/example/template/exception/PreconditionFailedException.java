@@ -0,0 +1,8 @@
+package com.example.template.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
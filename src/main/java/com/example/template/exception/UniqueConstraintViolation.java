@@ -0,0 +1,35 @@
+package com.example.template.exception;
+
+import com.example.template.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Maps a unique-key violation raised by the database back to the user field it protects, so
+ * callers can rely on the constraint instead of checking for duplicates before writing.
+ */
+public final class UniqueConstraintViolation {
+
+    private UniqueConstraintViolation() {}
+
+    /** Returns {@code username} or {@code email} when {@code ex} was caused by their unique key. */
+    public static Optional<String> field(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            String constraint = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (constraint != null) {
+                String name = constraint.toLowerCase(Locale.ROOT);
+                if (name.contains(User.UK_USERNAME)) {
+                    return Optional.of("username");
+                }
+                if (name.contains(User.UK_EMAIL)) {
+                    return Optional.of("email");
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -4,26 +4,40 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import com.example.template.search.UserSearchIndexListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
+// Updates list only the changed columns, so a patch of one field does not rewrite the others.
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@EntityListeners(UserSearchIndexListener.class)
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_active_created_at_id", columnList = "active, created_at, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+})
 public class User {
 
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Username is required")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @NotBlank(message = "Password is required")
@@ -41,6 +55,11 @@ public class User {
     @Column(nullable = false)
     private Boolean active = true;
 
+    // Bumped on every update, including bulk statements; backs the ETag of a user.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public User() {}
 
     public User(String username, String email, String password) {
@@ -51,13 +70,19 @@ public class User {
 
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        createdAt = now();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
     protected void onUpdate() {
-        updatedAt = LocalDateTime.now();
+        updatedAt = now();
+    }
+
+    // Match the database's microsecond precision so in-memory values equal what is read back,
+    // which keyset cursors rely on.
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
     }
 
     // Getters and Setters
@@ -116,4 +141,12 @@ public class User {
     public void setActive(Boolean active) {
         this.active = active;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.example.template.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC writes for bulk paths. Hibernate cannot batch inserts for IDENTITY ids, so these
+ * go through a single batched {@link PreparedStatement} instead of per-entity persists.
+ */
+@Repository
+public class UserBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO users (username, email, password, created_at, updated_at, active, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts active users in one JDBC batch and returns their generated ids in input order.
+     */
+    public List<Long> insertAll(List<NewUser> users, LocalDateTime now) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NewUser user = users.get(i);
+                        ps.setString(1, user.username());
+                        ps.setString(2, user.email());
+                        ps.setString(3, user.passwordHash());
+                        ps.setObject(4, now);
+                        ps.setObject(5, now);
+                        ps.setBoolean(6, true);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return users.size();
+                    }
+                },
+                keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(UserBatchRepository::id)
+                .toList();
+    }
+
+    private static Long id(Map<String, Object> keys) {
+        return ((Number) keys.get("id")).longValue();
+    }
+
+    public record NewUser(String username, String email, String passwordHash) {
+    }
+}
@@ -1,18 +1,41 @@
 package com.example.template.repository;
 
+import com.example.template.dto.UserDto;
+import com.example.template.dto.UserVersion;
 import com.example.template.model.User;
+import com.example.template.search.IndexedUser;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+/**
+ * Write paths load {@link User} entities; read paths project straight into {@link UserDto} so the
+ * password hash is never selected and nothing is added to the persistence context.
+ */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    String USER_DTO = "new com.example.template.dto.UserDto(u.id, u.username, u.email, u.createdAt, u.updatedAt, u.active, u.version)";
+
+    String SEARCH_MATCHES = "(LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))";
+
     Optional<User> findByUsername(String username);
     
     Optional<User> findByEmail(String email);
@@ -20,11 +43,113 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
     
     Page<User> findByActiveTrue(Pageable pageable);
-    
-    @Query("SELECT u FROM User u WHERE u.active = true AND " +
-           "(LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<User> findActiveUsersWithSearch(@Param("search") String search, Pageable pageable);
-}
\ No newline at end of file
+
+    long countByActiveTrue();
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.active = true AND " + SEARCH_MATCHES)
+    long countActiveUsersWithSearch(@Param("search") String search);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.username = :username")
+    Optional<UserDto> findDtoByUsername(@Param("username") String username);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.email = :email")
+    Optional<UserDto> findDtoByEmail(@Param("email") String email);
+
+    @Query("SELECT new com.example.template.dto.UserVersion(u.id, u.version, u.updatedAt) FROM User u WHERE u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.template.dto.UserVersion(u.id, u.version, u.updatedAt) FROM User u " +
+           "WHERE u.username = :username")
+    Optional<UserVersion> findVersionByUsername(@Param("username") String username);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id IN :ids")
+    List<UserDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT " + USER_DTO + " FROM User u",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserDto> findAllDtos(Pageable pageable);
+
+    @Query(value = "SELECT " + USER_DTO + " FROM User u WHERE u.active = true",
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.active = true")
+    Page<UserDto> findActiveUsers(Pageable pageable);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.active = true")
+    Slice<UserDto> findActiveUsersSlice(Pageable pageable);
+
+    @Query(value = "SELECT " + USER_DTO + " FROM User u WHERE u.active = true AND " + SEARCH_MATCHES,
+           countQuery = "SELECT COUNT(u) FROM User u WHERE u.active = true AND " + SEARCH_MATCHES)
+    Page<UserDto> findActiveUsersWithSearch(@Param("search") String search, Pageable pageable);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.active = true AND " + SEARCH_MATCHES)
+    Slice<UserDto> findActiveUsersWithSearchSlice(@Param("search") String search, Pageable pageable);
+
+    @Query("SELECT u.id FROM User u WHERE " + SEARCH_MATCHES + " AND u.id > :after ORDER BY u.id")
+    List<Long> findIdsMatching(@Param("search") String search, @Param("after") Long after, Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.active = :active, u.updatedAt = :updatedAt, u.version = u.version + 1 " +
+           "WHERE u.id IN :ids AND u.active <> :active")
+    int updateActiveByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("active") boolean active,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
+    // The rows an updateActiveByIdIn in the same transaction changed; they stay locked until it commits
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id IN :ids AND u.active = :active AND u.updatedAt = :updatedAt")
+    List<UserDto> findUpdatedActiveByIdIn(@Param("ids") Collection<Long> ids,
+                                          @Param("active") boolean active,
+                                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.template.search.IndexedUser(u.id, u.username, u.email, u.createdAt, u.active) " +
+           "FROM User u")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<IndexedUser> streamIndexedUsers();
+
+    @Query("SELECT u.username FROM User u")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamUsernames();
+
+    @Query("SELECT u.email FROM User u")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamEmails();
+
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<User> streamAllOrderById();
+
+    @Query("SELECT u FROM User u WHERE u.active = true ORDER BY u.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<User> streamActiveOrderById();
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.active = true AND " +
+           "(u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserDto> findActiveUsersAfter(@Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.active = true AND " + SEARCH_MATCHES + " AND " +
+           "(u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserDto> findActiveUsersWithSearchAfter(@Param("search") String search,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+}
@@ -0,0 +1,27 @@
+package com.example.template.search;
+
+import com.example.template.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * The slice of a user the search index keeps in memory. Username and email are stored
+ * lower-cased, matching the case-insensitive search semantics.
+ */
+public record IndexedUser(Long id, String username, String email, LocalDateTime createdAt, boolean active) {
+
+    public IndexedUser {
+        username = username.toLowerCase(Locale.ROOT);
+        email = email.toLowerCase(Locale.ROOT);
+    }
+
+    public static IndexedUser of(User user) {
+        return new IndexedUser(user.getId(), user.getUsername(), user.getEmail(), user.getCreatedAt(),
+                Boolean.TRUE.equals(user.getActive()));
+    }
+
+    boolean matches(String term) {
+        return active && (username.contains(term) || email.contains(term));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.template.search;
+
+import java.util.List;
+
+/**
+ * One page of matching user ids, in result order, plus the total number of matches.
+ */
+public record SearchResult(List<Long> ids, long total) {
+}
@@ -0,0 +1,332 @@
+package com.example.template.search;
+
+import com.example.template.dto.KeysetCursor;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory trigram index over usernames and emails, replacing the {@code LIKE '%term%'} scan.
+ *
+ * <p>Each trigram maps to a compressed bitmap of user ids. A search intersects the bitmaps of
+ * the term's trigrams, confirms the substring match against the indexed values and pages the
+ * result in memory, so only the rows of the requested page are fetched from the database and
+ * the total comes for free. Terms shorter than a trigram, unsupported sort properties and an
+ * index that has not finished its startup rebuild are reported as unanswerable and callers
+ * fall back to the database query.
+ *
+ * <p>The index is per instance and only sees this instance's writes as they happen. Writes made
+ * on other instances arrive with the next resync ({@link UserSearchIndexInitializer}), so their
+ * results can be stale for up to {@code app.search.index.resync-interval} plus one resync.
+ */
+@Component
+public class UserSearchIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private static final Map<String, Comparator<IndexedUser>> SORTABLE = Map.of(
+            "id", Comparator.comparing(IndexedUser::id),
+            "createdAt", Comparator.comparing(IndexedUser::createdAt),
+            "username", Comparator.comparing(IndexedUser::username),
+            "email", Comparator.comparing(IndexedUser::email));
+
+    private static final Comparator<IndexedUser> NEWEST_FIRST =
+            Comparator.comparing(IndexedUser::createdAt).thenComparing(IndexedUser::id).reversed();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedUser> users = new HashMap<>();
+    private final Map<Long, Roaring64Bitmap> postings = new HashMap<>();
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    // Non-null while a resync runs; guarded by the write lock
+    private Set<Long> writtenDuringResync;
+    private Roaring64Bitmap readDuringResync;
+
+    public UserSearchIndex(@Value("${app.search.index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void markReady() {
+        ready = enabled;
+    }
+
+    public boolean canSearch(String term) {
+        return ready && term.length() >= GRAM_LENGTH;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces a user, returning the entry it replaced.
+     */
+    public IndexedUser put(IndexedUser user) {
+        lock.writeLock().lock();
+        try {
+            written(user.id());
+            IndexedUser previous = users.put(user.id(), user);
+            if (previous != null) {
+                removePostings(previous);
+            }
+            addPostings(user);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts reconciling the index with a full read of the users table. Users written through
+     * this index until the resync finishes keep their indexed state, because the read may have
+     * seen them before that write.
+     */
+    public void beginResync() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringResync = new HashSet<>();
+            readDuringResync = new Roaring64Bitmap();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconciles one user read by the running resync, returning whether its entry changed.
+     */
+    public boolean resync(IndexedUser user) {
+        lock.writeLock().lock();
+        try {
+            readDuringResync.addLong(user.id());
+            if (writtenDuringResync.contains(user.id())) {
+                return false;
+            }
+            IndexedUser previous = users.put(user.id(), user);
+            if (user.equals(previous)) {
+                return false;
+            }
+            if (previous != null) {
+                removePostings(previous);
+            }
+            addPostings(user);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ends a resync that read the whole table: drops the users it did not read, which were
+     * deleted elsewhere, and returns how many were dropped.
+     */
+    public int finishResync() {
+        lock.writeLock().lock();
+        try {
+            List<Long> deleted = users.keySet().stream()
+                    .filter(id -> !readDuringResync.contains(id) && !writtenDuringResync.contains(id))
+                    .toList();
+            deleted.forEach(id -> removePostings(users.remove(id)));
+            return deleted.size();
+        } finally {
+            writtenDuringResync = null;
+            readDuringResync = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ends a resync whose read failed part way; what was reconciled so far stays.
+     */
+    public void cancelResync() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringResync = null;
+            readDuringResync = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flips the active flag of indexed users after a bulk update. Trigrams only depend on
+     * username and email, so the posting lists stay as they are.
+     */
+    public void setActive(Collection<Long> ids, boolean active) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                written(id);
+                IndexedUser user = users.get(id);
+                if (user != null && user.active() != active) {
+                    users.put(id, new IndexedUser(id, user.username(), user.email(), user.createdAt(), active));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public IndexedUser remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            written(id);
+            IndexedUser previous = users.remove(id);
+            if (previous != null) {
+                removePostings(previous);
+            }
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<SearchResult> search(String term, Pageable pageable) {
+        if (!canSearch(term)) {
+            return Optional.empty();
+        }
+        return comparator(pageable.getSort()).map(order -> pageable.isPaged()
+                ? select(term, user -> true, order, pageable.getOffset(), pageable.getPageSize())
+                : select(term, user -> true, order, 0, Integer.MAX_VALUE));
+    }
+
+    public Optional<SearchResult> searchBefore(String term, KeysetCursor cursor, int limit) {
+        if (!canSearch(term)) {
+            return Optional.empty();
+        }
+        Predicate<IndexedUser> before = user -> user.createdAt().isBefore(cursor.createdAt())
+                || (user.createdAt().isEqual(cursor.createdAt()) && user.id() < cursor.id());
+        return Optional.of(select(term, before, NEWEST_FIRST, 0, limit));
+    }
+
+    private SearchResult select(String term, Predicate<IndexedUser> filter, Comparator<IndexedUser> order,
+                                long offset, int limit) {
+        String needle = term.toLowerCase(Locale.ROOT);
+        long keep = Math.min(offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<IndexedUser> top = new PriorityQueue<>(order.reversed());
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            LongIterator candidates = candidates(needle).getLongIterator();
+            while (candidates.hasNext()) {
+                IndexedUser user = users.get(candidates.next());
+                if (user != null && user.matches(needle) && filter.test(user)) {
+                    total++;
+                    top.offer(user);
+                    if (top.size() > keep) {
+                        top.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<IndexedUser> sorted = new ArrayList<>(top);
+        sorted.sort(order);
+        List<Long> ids = sorted.subList((int) Math.min(offset, sorted.size()), sorted.size()).stream()
+                .map(IndexedUser::id)
+                .toList();
+        return new SearchResult(ids, total);
+    }
+
+    // Intersects the posting lists smallest-first; any missing trigram means no match.
+    private Roaring64Bitmap candidates(String needle) {
+        List<Roaring64Bitmap> lists = new ArrayList<>();
+        for (long gram : grams(needle)) {
+            Roaring64Bitmap posting = postings.get(gram);
+            if (posting == null) {
+                return new Roaring64Bitmap();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingLong(Roaring64Bitmap::getLongCardinality));
+
+        Roaring64Bitmap result = lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.and(lists.get(i));
+        }
+        return result;
+    }
+
+    private void written(Long id) {
+        if (writtenDuringResync != null) {
+            writtenDuringResync.add(id);
+        }
+    }
+
+    private void addPostings(IndexedUser user) {
+        for (long gram : grams(user)) {
+            postings.computeIfAbsent(gram, key -> new Roaring64Bitmap()).addLong(user.id());
+        }
+    }
+
+    private void removePostings(IndexedUser user) {
+        for (long gram : grams(user)) {
+            Roaring64Bitmap posting = postings.get(gram);
+            if (posting != null) {
+                posting.removeLong(user.id());
+                if (posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<Long> grams(IndexedUser user) {
+        Set<Long> grams = grams(user.username());
+        grams.addAll(grams(user.email()));
+        return grams;
+    }
+
+    // Packs each run of three UTF-16 chars into one long key.
+    private static Set<Long> grams(String value) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        return grams;
+    }
+
+    private static Optional<Comparator<IndexedUser>> comparator(Sort sort) {
+        Comparator<IndexedUser> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedUser> property = SORTABLE.get(order.getProperty());
+            if (property == null) {
+                return Optional.empty();
+            }
+            property = order.isDescending() ? property.reversed() : property;
+            result = result == null ? property : result.thenComparing(property);
+        }
+        Comparator<IndexedUser> byId = SORTABLE.get("id");
+        return Optional.of(result == null ? byId : result.thenComparing(byId));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.template.search;
+
+import com.example.template.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Loads every user into {@link UserSearchIndex} once the application is up, then re-reads the
+ * table every {@code app.search.index.resync-interval} (0 disables it). Each instance only
+ * indexes its own writes as they happen, so the resync is what bounds how stale results are for
+ * users created, changed or deleted on other instances. Searches use the database until the
+ * first rebuild has finished.
+ */
+@Component
+public class UserSearchIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndexInitializer.class);
+
+    private final UserSearchIndex index;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnly;
+    private final Duration resyncInterval;
+    private final ScheduledExecutorService resyncs;
+
+    public UserSearchIndexInitializer(UserSearchIndex index, UserRepository userRepository,
+                                      PlatformTransactionManager transactionManager,
+                                      @Value("${app.search.index.resync-interval:60s}") Duration resyncInterval) {
+        this.index = index;
+        this.userRepository = userRepository;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.resyncInterval = resyncInterval;
+        this.resyncs = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("search-index-resync-"));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!index.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        resync();
+        index.markReady();
+        log.info("Search index built with {} users in {} ms",
+                index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        if (!resyncInterval.isZero()) {
+            long interval = resyncInterval.toMillis();
+            resyncs.scheduleWithFixedDelay(this::scheduledResync, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reconciles the index with the users table, returning how many entries were corrected.
+     */
+    public int resync() {
+        AtomicInteger corrected = new AtomicInteger();
+        index.beginResync();
+        try {
+            readOnly.executeWithoutResult(status -> {
+                try (Stream<IndexedUser> users = userRepository.streamIndexedUsers()) {
+                    users.forEach(user -> {
+                        if (index.resync(user)) {
+                            corrected.incrementAndGet();
+                        }
+                    });
+                }
+            });
+        } catch (RuntimeException e) {
+            index.cancelResync();
+            throw e;
+        }
+        return corrected.get() + index.finishResync();
+    }
+
+    private void scheduledResync() {
+        try {
+            int corrected = resync();
+            if (corrected > 0) {
+                log.debug("Search index resync corrected {} users written elsewhere", corrected);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Search index resync failed, keeping the current index until the next one", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resyncs.shutdownNow();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.template.search;
+
+import com.example.template.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link UserSearchIndex} in step with every JPA write of a {@link User}. Inserts and
+ * updates are applied at flush time and reverted if the transaction rolls back; removals wait
+ * for the commit. Instantiated by Hibernate through Spring's bean container.
+ */
+public class UserSearchIndexListener {
+
+    private final UserSearchIndex index;
+
+    public UserSearchIndexListener(UserSearchIndex index) {
+        this.index = index;
+    }
+
+    @PostPersist
+    public void onPersist(User user) {
+        if (!index.isEnabled()) {
+            return;
+        }
+        Long id = user.getId();
+        index.put(IndexedUser.of(user));
+        onRollback(() -> index.remove(id));
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        if (!index.isEnabled()) {
+            return;
+        }
+        Long id = user.getId();
+        IndexedUser previous = index.put(IndexedUser.of(user));
+        onRollback(() -> {
+            if (previous != null) {
+                index.put(previous);
+            } else {
+                index.remove(id);
+            }
+        });
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        if (!index.isEnabled()) {
+            return;
+        }
+        Long id = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.remove(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                index.remove(id);
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
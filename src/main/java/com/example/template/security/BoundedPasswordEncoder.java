@@ -0,0 +1,116 @@
+package com.example.template.security;
+
+import com.example.template.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} (BCrypt) on a fixed-size pool with a bounded queue,
+ * so hashing bursts cannot take every core away from request threads serving cheap reads.
+ *
+ * <p>When the queue is full the caller fails fast with {@link ServiceOverloadedException}
+ * instead of waiting. Queue depth and hash latency are exported by Micrometer's executor binder
+ * ({@code executor.queued}, {@code executor.execution}, {@code executor.idle}, tagged
+ * {@code name=password.hashing}); rejections are counted in {@code password.hashing.rejected}.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final int batchWindow;
+    private final Duration retryAfter;
+    private final Counter rejected;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity,
+                                  Duration retryAfter, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.delegate = delegate;
+        this.batchWindow = Math.min(poolSize, queueCapacity);
+        this.retryAfter = retryAfter;
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "password.hashing");
+        this.rejected = Counter.builder("password.hashing.rejected")
+                .description("Password hashing requests rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(submit(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(submit(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hashes many passwords for one caller. At most one task per pool thread is in flight at a
+     * time, so a large batch keeps the workers busy without filling the queue and starving
+     * single-user requests.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += batchWindow) {
+            List<Future<String>> window = new ArrayList<>(batchWindow);
+            for (CharSequence raw : rawPasswords.subList(from, Math.min(from + batchWindow, rawPasswords.size()))) {
+                window.add(submit(() -> delegate.encode(raw)));
+            }
+            for (Future<String> future : window) {
+                encoded.add(await(future));
+            }
+        }
+        return encoded;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Password hashing capacity exceeded, retry later", retryAfter, e);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
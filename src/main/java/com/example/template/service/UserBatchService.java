@@ -0,0 +1,19 @@
+package com.example.template.service;
+
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BulkUpdateResponse;
+import com.example.template.dto.BulkUserRequest;
+import com.example.template.dto.CreateUserRequest;
+
+import java.util.List;
+
+public interface UserBatchService {
+
+    BatchCreateResponse createUsers(List<CreateUserRequest> requests);
+
+    BulkUpdateResponse activateUsers(BulkUserRequest request);
+
+    BulkUpdateResponse deactivateUsers(BulkUserRequest request);
+
+    BulkUpdateResponse deleteUsers(BulkUserRequest request);
+}
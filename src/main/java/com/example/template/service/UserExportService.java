@@ -0,0 +1,11 @@
+package com.example.template.service;
+
+import com.example.template.dto.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    void exportUsers(DataFormat format, boolean activeOnly, OutputStream out) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.example.template.service;
+
+import com.example.template.dto.DataFormat;
+import com.example.template.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    ImportReport importUsers(DataFormat format, InputStream in) throws IOException;
+}
@@ -1,9 +1,15 @@
 package com.example.template.service;
 
+import com.example.template.dto.CursorPage;
+import com.example.template.dto.TotalCount;
+import com.example.template.dto.UserAvailability;
 import com.example.template.dto.UserDto;
+import com.example.template.dto.UserPatch;
+import com.example.template.dto.UserVersion;
 import com.example.template.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.Optional;
 
@@ -16,22 +22,52 @@ public interface UserService {
     Optional<UserDto> getUserByUsername(String username);
     
     Optional<UserDto> getUserByEmail(String email);
+
+    Optional<UserVersion> getUserVersion(Long id);
+
+    Optional<UserVersion> getUserVersionByUsername(String username);
     
     Page<UserDto> getAllUsers(Pageable pageable);
     
     Page<UserDto> getActiveUsers(Pageable pageable);
     
     Page<UserDto> searchUsers(String search, Pageable pageable);
+
+    Slice<UserDto> getActiveUsers(Pageable pageable, TotalCount total);
+
+    Slice<UserDto> searchUsers(String search, Pageable pageable, TotalCount total);
+
+    CursorPage<UserDto> getActiveUsers(String cursor, int size);
+
+    CursorPage<UserDto> searchUsers(String search, String cursor, int size);
     
     UserDto updateUser(Long id, UserDto userDto);
+
+    /**
+     * Updates the user only if it is still at {@code expectedVersion} ({@code null} updates
+     * unconditionally); otherwise throws {@link com.example.template.exception.PreconditionFailedException}.
+     */
+    UserDto updateUser(Long id, UserDto userDto, Long expectedVersion);
+
+    /**
+     * Applies a merge patch: only the fields it carries are changed and written, under the same
+     * version precondition as {@link #updateUser(Long, UserDto, Long)}.
+     */
+    UserDto patchUser(Long id, UserPatch patch, Long expectedVersion);
     
     void deleteUser(Long id);
     
     void deactivateUser(Long id);
+
+    UserVersion deactivateUser(Long id, Long expectedVersion);
     
     void activateUser(Long id);
+
+    UserVersion activateUser(Long id, Long expectedVersion);
     
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+    
+    UserAvailability checkAvailability(String username, String email);
 }
\ No newline at end of file
@@ -0,0 +1,330 @@
+package com.example.template.service.impl;
+
+import com.example.template.cache.UserAvailabilityFilter;
+import com.example.template.cache.UserCache;
+import com.example.template.cache.UserCountCache;
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BatchCreateResult;
+import com.example.template.dto.BulkUpdateResponse;
+import com.example.template.dto.BulkUserRequest;
+import com.example.template.dto.CreateUserRequest;
+import com.example.template.dto.UserDto;
+import com.example.template.events.UserChangeEvent;
+import com.example.template.events.UserChangeStream;
+import com.example.template.repository.UserBatchRepository;
+import com.example.template.repository.UserBatchRepository.NewUser;
+import com.example.template.repository.UserRepository;
+import com.example.template.search.IndexedUser;
+import com.example.template.search.UserSearchIndex;
+import com.example.template.security.BoundedPasswordEncoder;
+import com.example.template.service.UserBatchService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user creation. Uniqueness is checked for the whole batch with a few set-based queries,
+ * passwords are hashed on the shared bounded hashing pool and rows are inserted in JDBC batches,
+ * each chunk in its own transaction. Every input item gets its own result; one bad item never
+ * fails the batch.
+ *
+ * <p>Bulk activate, deactivate and delete run one set-based UPDATE or DELETE per chunk of ids,
+ * again one transaction per chunk, without loading entities. Bulk statements bypass the entity
+ * listeners, so the caches, the search index and the change stream are brought up to date here
+ * after each commit. The rows a chunk changed are read back in its transaction, so subscribers get
+ * one event per changed user; if that read does not match the affected count they get a reset.
+ */
+@Service
+public class UserBatchServiceImpl implements UserBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserBatchServiceImpl.class);
+
+    private final UserRepository userRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final UserSearchIndex searchIndex;
+    private final UserCache userCache;
+    private final UserCountCache userCountCache;
+    private final UserAvailabilityFilter availabilityFilter;
+    private final UserChangeStream changeStream;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBatchSize;
+    private final int chunkSize;
+
+    @Autowired
+    public UserBatchServiceImpl(UserRepository userRepository,
+                                UserBatchRepository userBatchRepository,
+                                BoundedPasswordEncoder passwordEncoder,
+                                Validator validator,
+                                UserSearchIndex searchIndex,
+                                UserCache userCache,
+                                UserCountCache userCountCache,
+                                UserAvailabilityFilter availabilityFilter,
+                                UserChangeStream changeStream,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.users.batch.max-size:50000}") int maxBatchSize,
+                                @Value("${app.users.batch.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.searchIndex = searchIndex;
+        this.userCache = userCache;
+        this.userCountCache = userCountCache;
+        this.availabilityFilter = availabilityFilter;
+        this.changeStream = changeStream;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxBatchSize = maxBatchSize;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchCreateResponse createUsers(List<CreateUserRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size must not exceed " + maxBatchSize);
+        }
+
+        BatchCreateResult[] results = new BatchCreateResult[requests.size()];
+        List<Pending> pending = validate(requests, results);
+        pending = rejectExisting(pending, results);
+
+        List<String> hashes = passwordEncoder.encodeAll(pending.stream().map(p -> p.request().getPassword()).toList());
+        List<Hashed> hashed = new ArrayList<>(pending.size());
+        for (int i = 0; i < pending.size(); i++) {
+            CreateUserRequest request = pending.get(i).request();
+            hashed.add(new Hashed(pending.get(i).index(), new NewUser(request.getUsername(), request.getEmail(), hashes.get(i))));
+        }
+
+        for (int from = 0; from < hashed.size(); from += chunkSize) {
+            insert(hashed.subList(from, Math.min(from + chunkSize, hashed.size())), results);
+        }
+        return new BatchCreateResponse(Arrays.asList(results));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResponse activateUsers(BulkUserRequest request) {
+        return forEachChunk(request, ids -> setActive(ids, true));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResponse deactivateUsers(BulkUserRequest request) {
+        return forEachChunk(request, ids -> setActive(ids, false));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkUpdateResponse deleteUsers(BulkUserRequest request) {
+        return forEachChunk(request, this::delete);
+    }
+
+    // Resolves the selection chunk by chunk (filters page through matching ids in id order) and
+    // sums the rows each chunk's statement affected.
+    private BulkUpdateResponse forEachChunk(BulkUserRequest request, ToIntFunction<List<Long>> operation) {
+        boolean byIds = request.getIds() != null;
+        boolean bySearch = request.getSearch() != null && !request.getSearch().isBlank();
+        if (byIds == bySearch) {
+            throw new IllegalArgumentException("Provide either ids or a search filter");
+        }
+
+        long matched = 0;
+        long affected = 0;
+        int chunks = 0;
+        if (byIds) {
+            List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+            if (ids.size() > maxBatchSize) {
+                throw new IllegalArgumentException("Bulk operations accept at most " + maxBatchSize + " ids");
+            }
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                affected += operation.applyAsInt(ids.subList(from, Math.min(from + chunkSize, ids.size())));
+                chunks++;
+            }
+            matched = ids.size();
+        } else {
+            String search = request.getSearch().trim();
+            List<Long> ids;
+            long after = 0;
+            do {
+                ids = userRepository.findIdsMatching(search, after, PageRequest.of(0, chunkSize));
+                if (!ids.isEmpty()) {
+                    affected += operation.applyAsInt(ids);
+                    matched += ids.size();
+                    chunks++;
+                    after = ids.get(ids.size() - 1);
+                }
+            } while (ids.size() == chunkSize);
+        }
+        return new BulkUpdateResponse(matched, affected, chunks);
+    }
+
+    private int setActive(List<Long> ids, boolean active) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Changed<UserDto> changed = transactionTemplate.execute(status -> {
+            int affected = userRepository.updateActiveByIdIn(ids, active, now);
+            List<UserDto> users = affected == 0 ? List.of() : userRepository.findUpdatedActiveByIdIn(ids, active, now);
+            return new Changed<>(affected, users);
+        });
+        userCache.evict(ids);
+        searchIndex.setActive(ids, active);
+        userCountCache.adjustActiveUsers(active ? changed.affected() : -changed.affected());
+        UserChangeEvent.Type type = active ? UserChangeEvent.Type.ACTIVATED : UserChangeEvent.Type.DEACTIVATED;
+        publish(changed, user -> changeStream.publish(type, user.getId(), user));
+        return changed.affected();
+    }
+
+    private int delete(List<Long> ids) {
+        Changed<Long> changed = transactionTemplate.execute(status -> {
+            List<Long> existing = userRepository.findExistingIds(ids);
+            return new Changed<>(existing.isEmpty() ? 0 : userRepository.deleteByIdIn(existing), existing);
+        });
+        userCache.evict(ids);
+        ids.forEach(searchIndex::remove);
+        if (changed.affected() > 0) {
+            userCountCache.refreshActiveUsers();
+        }
+        publish(changed, id -> changeStream.publish(UserChangeEvent.Type.DELETED, id, null));
+        return changed.affected();
+    }
+
+    // A concurrent writer can make the read-back differ from what the statement changed
+    private <T> void publish(Changed<T> changed, Consumer<T> event) {
+        if (changed.affected() == changed.items().size()) {
+            changed.items().forEach(event);
+        } else {
+            changeStream.publish(UserChangeEvent.Type.RESET, null, null);
+        }
+    }
+
+    // Bean validation plus duplicate detection inside the batch; the first occurrence wins.
+    private List<Pending> validate(List<CreateUserRequest> requests, BatchCreateResult[] results) {
+        List<Pending> pending = new ArrayList<>(requests.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateUserRequest request = requests.get(i);
+            Set<ConstraintViolation<CreateUserRequest>> violations = request == null ? Set.of() : validator.validate(request);
+            if (request == null) {
+                results[i] = BatchCreateResult.invalid(i, "User is required");
+            } else if (!violations.isEmpty()) {
+                results[i] = BatchCreateResult.invalid(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (usernames.contains(request.getUsername())) {
+                results[i] = BatchCreateResult.conflict(i, "Duplicate username in batch: " + request.getUsername());
+            } else if (emails.contains(request.getEmail())) {
+                results[i] = BatchCreateResult.conflict(i, "Duplicate email in batch: " + request.getEmail());
+            } else {
+                usernames.add(request.getUsername());
+                emails.add(request.getEmail());
+                pending.add(new Pending(i, request));
+            }
+        }
+        return pending;
+    }
+
+    private List<Pending> rejectExisting(List<Pending> pending, BatchCreateResult[] results) {
+        Set<String> existingUsernames = findExisting(
+                pending.stream().map(p -> p.request().getUsername()).toList(), userRepository::findExistingUsernames);
+        Set<String> existingEmails = findExisting(
+                pending.stream().map(p -> p.request().getEmail()).toList(), userRepository::findExistingEmails);
+
+        List<Pending> remaining = new ArrayList<>(pending.size());
+        for (Pending p : pending) {
+            if (existingUsernames.contains(p.request().getUsername())) {
+                results[p.index()] = BatchCreateResult.conflict(p.index(), "Username already exists: " + p.request().getUsername());
+            } else if (existingEmails.contains(p.request().getEmail())) {
+                results[p.index()] = BatchCreateResult.conflict(p.index(), "Email already exists: " + p.request().getEmail());
+            } else {
+                remaining.add(p);
+            }
+        }
+        return remaining;
+    }
+
+    private Set<String> findExisting(List<String> values, Function<Collection<String>, List<String>> query) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            existing.addAll(query.apply(values.subList(from, Math.min(from + chunkSize, values.size()))));
+        }
+        return existing;
+    }
+
+    private void insert(List<Hashed> chunk, BatchCreateResult[] results) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        try {
+            List<Long> ids = transactionTemplate.execute(status ->
+                    userBatchRepository.insertAll(chunk.stream().map(Hashed::user).toList(), now));
+            for (int i = 0; i < chunk.size(); i++) {
+                created(chunk.get(i), ids.get(i), now, results);
+            }
+            userCountCache.adjustActiveUsers(chunk.size());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took a name after the existence check, or the database rejected a
+            // row validation let through; settle the chunk row by row so only those rows fail.
+            for (Hashed hashed : chunk) {
+                try {
+                    List<Long> ids = transactionTemplate.execute(status ->
+                            userBatchRepository.insertAll(List.of(hashed.user()), now));
+                    created(hashed, ids.get(0), now, results);
+                    userCountCache.adjustActiveUsers(1);
+                } catch (DuplicateKeyException duplicate) {
+                    results[hashed.index()] = BatchCreateResult.conflict(hashed.index(), "Username or email already exists");
+                } catch (DataIntegrityViolationException rejected) {
+                    log.warn("Batch item {} rejected by the database: {}", hashed.index(),
+                            rejected.getMostSpecificCause().getMessage());
+                    results[hashed.index()] = BatchCreateResult.invalid(hashed.index(), "Rejected by a database constraint");
+                }
+            }
+        }
+    }
+
+    private void created(Hashed hashed, Long id, LocalDateTime now, BatchCreateResult[] results) {
+        NewUser user = hashed.user();
+        UserDto dto = new UserDto(id, user.username(), user.email(), now, now, true, 0L);
+        results[hashed.index()] = BatchCreateResult.created(hashed.index(), dto);
+        changeStream.publish(UserChangeEvent.Type.CREATED, id, dto);
+        availabilityFilter.add(user.username(), user.email());
+        if (searchIndex.isEnabled()) {
+            searchIndex.put(new IndexedUser(id, user.username(), user.email(), now, true));
+        }
+    }
+
+    private record Changed<T>(int affected, List<T> items) {
+    }
+
+    private record Pending(int index, CreateUserRequest request) {
+    }
+
+    private record Hashed(int index, NewUser user) {
+    }
+}
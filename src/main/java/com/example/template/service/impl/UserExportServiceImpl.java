@@ -0,0 +1,113 @@
+package com.example.template.service.impl;
+
+import com.example.template.dto.DataFormat;
+import com.example.template.dto.UserDto;
+import com.example.template.model.User;
+import com.example.template.repository.UserRepository;
+import com.example.template.service.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams users straight from a database cursor to the response. Rows are read with a JDBC
+ * fetch size, written immediately and detached from the persistence context, so memory use
+ * does not grow with the number of users exported.
+ */
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,username,email,active,createdAt,updatedAt";
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public UserExportServiceImpl(UserRepository userRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportUsers(DataFormat format, boolean activeOnly, OutputStream out) throws IOException {
+        try (Stream<User> users = activeOnly ? userRepository.streamActiveOrderById() : userRepository.streamAllOrderById()) {
+            Iterator<User> iterator = users.iterator();
+            switch (format) {
+                case NDJSON -> writeNdjson(iterator, out);
+                case CSV -> writeCsv(iterator, out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<User> users, OutputStream out) throws IOException {
+        // Rows must not flush one by one: every flush reaches the socket and forces a gzip sync-flush
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(out, BUFFER_SIZE))) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            while (users.hasNext()) {
+                User user = users.next();
+                writer.writeValue(generator, toDto(user));
+                generator.writeRaw('\n');
+                entityManager.detach(user);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<User> users, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (users.hasNext()) {
+            User user = users.next();
+            writer.write(String.valueOf(user.getId()));
+            writer.write(',');
+            writer.write(csv(user.getUsername()));
+            writer.write(',');
+            writer.write(csv(user.getEmail()));
+            writer.write(',');
+            writer.write(String.valueOf(user.getActive()));
+            writer.write(',');
+            writer.write(String.valueOf(user.getCreatedAt()));
+            writer.write(',');
+            writer.write(String.valueOf(user.getUpdatedAt()));
+            writer.write("\r\n");
+            entityManager.detach(user);
+        }
+        writer.flush();
+    }
+
+    private static UserDto toDto(User user) {
+        return new UserDto(user.getId(), user.getUsername(), user.getEmail(),
+                user.getCreatedAt(), user.getUpdatedAt(), user.getActive(), user.getVersion());
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.template.service.impl;
+
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BatchCreateResult;
+import com.example.template.dto.CreateUserRequest;
+import com.example.template.dto.DataFormat;
+import com.example.template.dto.ImportReport;
+import com.example.template.exception.ServiceOverloadedException;
+import com.example.template.service.UserBatchService;
+import com.example.template.service.UserImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streams an NDJSON or CSV upload into the bulk create pipeline one chunk at a time. Only the
+ * current chunk and a capped list of errors are held in memory, so large files import in
+ * constant space. Each chunk is committed before the next one is read, which also makes
+ * duplicates of already imported rows show up as conflicts.
+ *
+ * <p>If password hashing is overloaded the import stops before the chunk that could not be
+ * hashed. Everything before {@link ImportReport#getResumeFromRow()} is committed and reported;
+ * the client re-sends the rows from that position.
+ */
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private final UserBatchService userBatchService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public UserImportServiceImpl(UserBatchService userBatchService,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.users.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.users.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.userBatchService = userBatchService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ImportReport importUsers(DataFormat format, InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        ImportReport report = new ImportReport();
+        long start = System.nanoTime();
+
+        CsvColumns columns = format == DataFormat.CSV ? CsvColumns.of(reader.readLine()) : null;
+        Chunk chunk = new Chunk(chunkSize);
+        int row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int index = row++;
+            try {
+                chunk.add(index, columns == null ? parseJson(line) : columns.parse(line));
+            } catch (IllegalArgumentException e) {
+                chunk.invalid(index, BatchCreateResult.invalid(index, e.getMessage()));
+            }
+            if (chunk.size() == chunkSize && !flush(chunk, report)) {
+                return stopped(report, start);
+            }
+        }
+        if (!flush(chunk, report)) {
+            return stopped(report, start);
+        }
+        report.setRows(row);
+
+        log.info("Imported {} rows in {} chunks ({} created, {} conflicts, {} invalid) in {} ms",
+                report.getRows(), report.getChunks(), report.getCreated(), report.getConflicts(), report.getInvalid(),
+                (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    // Commits the chunk and records its outcome; false when hashing is overloaded and nothing was written
+    private boolean flush(Chunk chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return true;
+        }
+        BatchCreateResponse response = null;
+        if (!chunk.requests.isEmpty()) {
+            try {
+                response = userBatchService.createUsers(chunk.requests);
+            } catch (ServiceOverloadedException e) {
+                report.setRows(chunk.firstRow);
+                report.setResumeFromRow((long) chunk.firstRow);
+                report.setRetryAfterSeconds(Math.max(1, e.getRetryAfter().toSeconds()));
+                return false;
+            }
+        }
+        chunk.invalid.forEach(error -> record(report, error));
+        if (response != null) {
+            report.setCreated(report.getCreated() + response.getCreated());
+            report.setChunks(report.getChunks() + 1);
+            for (BatchCreateResult result : response.getResults()) {
+                if (result.getStatus() != BatchCreateResult.Status.CREATED) {
+                    result.setIndex(chunk.rows.get(result.getIndex()));
+                    record(report, result);
+                }
+            }
+        }
+        log.debug("Import chunk {} committed: {} created so far", report.getChunks(), report.getCreated());
+        chunk.clear();
+        return true;
+    }
+
+    private ImportReport stopped(ImportReport report, long start) {
+        log.warn("Import stopped at row {} after {} chunks ({} created) in {} ms: password hashing overloaded",
+                report.getResumeFromRow(), report.getChunks(), report.getCreated(),
+                (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private void record(ImportReport report, BatchCreateResult error) {
+        if (error.getStatus() == BatchCreateResult.Status.CONFLICT) {
+            report.setConflicts(report.getConflicts() + 1);
+        } else {
+            report.setInvalid(report.getInvalid() + 1);
+        }
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(error);
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+
+    private CreateUserRequest parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, CreateUserRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    // Rows read since the last commit. Parse errors are only reported once their chunk commits, so
+    // a stopped import reports exactly the rows before its resume position.
+    private static final class Chunk {
+
+        private final List<CreateUserRequest> requests;
+        private final List<Integer> rows;
+        private final List<BatchCreateResult> invalid = new ArrayList<>();
+        private int firstRow = -1;
+
+        Chunk(int capacity) {
+            requests = new ArrayList<>(capacity);
+            rows = new ArrayList<>(capacity);
+        }
+
+        void add(int row, CreateUserRequest request) {
+            start(row);
+            requests.add(request);
+            rows.add(row);
+        }
+
+        void invalid(int row, BatchCreateResult error) {
+            start(row);
+            invalid.add(error);
+        }
+
+        int size() {
+            return requests.size() + invalid.size();
+        }
+
+        boolean isEmpty() {
+            return firstRow < 0;
+        }
+
+        void clear() {
+            requests.clear();
+            rows.clear();
+            invalid.clear();
+            firstRow = -1;
+        }
+
+        private void start(int row) {
+            if (firstRow < 0) {
+                firstRow = row;
+            }
+        }
+    }
+
+    // Column positions from the CSV header; one record per line, RFC 4180 quoting within a line.
+    private record CsvColumns(int username, int email, int password, int count) {
+
+        static CsvColumns of(String header) {
+            if (header == null) {
+                throw new IllegalArgumentException("CSV import requires a header row");
+            }
+            List<String> names = split(header).stream().map(name -> name.trim().toLowerCase(Locale.ROOT)).toList();
+            CsvColumns columns = new CsvColumns(
+                    names.indexOf("username"), names.indexOf("email"), names.indexOf("password"), names.size());
+            if (columns.username() < 0 || columns.email() < 0 || columns.password() < 0) {
+                throw new IllegalArgumentException("CSV header must contain username, email and password columns");
+            }
+            return columns;
+        }
+
+        CreateUserRequest parse(String line) {
+            List<String> fields = split(line);
+            if (fields.size() != count) {
+                throw new IllegalArgumentException("Expected " + count + " columns but found " + fields.size());
+            }
+            CreateUserRequest request = new CreateUserRequest();
+            request.setUsername(fields.get(username));
+            request.setEmail(fields.get(email));
+            request.setPassword(fields.get(password));
+            return request;
+        }
+
+        private static List<String> split(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -1,19 +1,47 @@
 package com.example.template.service.impl;
 
+import com.example.template.cache.UserAvailabilityFilter;
+import com.example.template.cache.UserCache;
+import com.example.template.cache.UserCountCache;
+import com.example.template.dto.CursorPage;
+import com.example.template.dto.KeysetCursor;
+import com.example.template.dto.TotalCount;
+import com.example.template.dto.UserAvailability;
 import com.example.template.dto.UserDto;
+import com.example.template.dto.UserPatch;
+import com.example.template.dto.UserVersion;
+import com.example.template.events.UserChangeEvent;
+import com.example.template.events.UserChangeStream;
+import com.example.template.exception.PreconditionFailedException;
 import com.example.template.exception.ResourceAlreadyExistsException;
 import com.example.template.exception.ResourceNotFoundException;
+import com.example.template.exception.UniqueConstraintViolation;
 import com.example.template.model.User;
 import com.example.template.repository.UserRepository;
+import com.example.template.search.SearchResult;
+import com.example.template.search.UserSearchIndex;
 import com.example.template.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -21,85 +49,200 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final UserCountCache userCountCache;
+    private final UserSearchIndex searchIndex;
+    private final UserAvailabilityFilter availabilityFilter;
+    private final UserChangeStream changeStream;
+    private final TransactionTemplate transactionTemplate;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           UserCache userCache, UserCountCache userCountCache, UserSearchIndex searchIndex,
+                           UserAvailabilityFilter availabilityFilter, UserChangeStream changeStream,
+                           PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.userCountCache = userCountCache;
+        this.searchIndex = searchIndex;
+        this.availabilityFilter = availabilityFilter;
+        this.changeStream = changeStream;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // Hashing can wait for the bounded BCrypt executor, so it happens before the transaction: a
+    // queued signup must not hold a pooled connection, or a burst of them starves every read.
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserDto createUser(UserDto userDto, String password) {
-        if (existsByUsername(userDto.getUsername())) {
-            throw new ResourceAlreadyExistsException("Username already exists: " + userDto.getUsername());
-        }
-        if (existsByEmail(userDto.getEmail())) {
-            throw new ResourceAlreadyExistsException("Email already exists: " + userDto.getEmail());
-        }
-
         User user = new User();
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
         user.setPassword(passwordEncoder.encode(password));
         user.setActive(true);
 
-        User savedUser = userRepository.save(user);
-        return mapToDto(savedUser);
+        return transactionTemplate.execute(status -> {
+            // Uniqueness is enforced by the unique keys in the same round trip as the insert.
+            User savedUser = saveUnique(user);
+            availabilityFilter.add(savedUser.getUsername(), savedUser.getEmail());
+            userCountCache.adjustActiveUsers(1);
+            return published(UserChangeEvent.Type.CREATED, savedUser, null);
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<UserDto> getUserById(Long id) {
-        return userRepository.findById(id).map(this::mapToDto);
+        return userCache.getById(id, this::loadById);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<UserDto> getUserByUsername(String username) {
-        return userRepository.findByUsername(username).map(this::mapToDto);
+        return userCache.getByUsername(username,
+                userRepository::findDtoByUsername, this::loadById);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<UserDto> getUserByEmail(String email) {
-        return userRepository.findByEmail(email).map(this::mapToDto);
+        return userCache.getByEmail(email,
+                userRepository::findDtoByEmail, this::loadById);
+    }
+
+    // Validators come from the cached user when there is one, so they always describe the body
+    // the cache would serve; otherwise from a three-column lookup that does not fill the cache.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserVersion> getUserVersion(Long id) {
+        return userCache.peekById(id).map(UserVersion::of)
+                .or(() -> userRepository.findVersionById(id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserVersion> getUserVersionByUsername(String username) {
+        return userCache.peekByUsername(username).map(UserVersion::of)
+                .or(() -> userRepository.findVersionByUsername(username));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<UserDto> getAllUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(this::mapToDto);
+        return userRepository.findAllDtos(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<UserDto> getActiveUsers(Pageable pageable) {
-        return userRepository.findByActiveTrue(pageable).map(this::mapToDto);
+        return userRepository.findActiveUsers(pageable);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<UserDto> searchUsers(String search, Pageable pageable) {
-        return userRepository.findActiveUsersWithSearch(search, pageable).map(this::mapToDto);
+        return searchIndex.search(search, pageable)
+                .<Page<UserDto>>map(result -> new PageImpl<>(loadInOrder(result), pageable, result.total()))
+                .orElseGet(() -> userRepository.findActiveUsersWithSearch(search, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDto> getActiveUsers(Pageable pageable, TotalCount total) {
+        return switch (total) {
+            case EXACT -> getActiveUsers(pageable);
+            case NONE -> userRepository.findActiveUsersSlice(pageable);
+            case APPROXIMATE -> withTotal(getActiveUsers(pageable, TotalCount.NONE), userCountCache.activeUsers());
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDto> searchUsers(String search, Pageable pageable, TotalCount total) {
+        Optional<SearchResult> indexed = searchIndex.search(search, pageable);
+        if (indexed.isPresent()) {
+            SearchResult result = indexed.get();
+            List<UserDto> content = loadInOrder(result);
+            if (total == TotalCount.NONE) {
+                boolean hasNext = pageable.isPaged() && pageable.getOffset() + result.ids().size() < result.total();
+                return new SliceImpl<>(content, pageable, hasNext);
+            }
+            return new PageImpl<>(content, pageable, result.total());
+        }
+        return switch (total) {
+            case EXACT -> searchUsers(search, pageable);
+            case NONE -> userRepository.findActiveUsersWithSearchSlice(search, pageable);
+            case APPROXIMATE -> withTotal(searchUsers(search, pageable, TotalCount.NONE),
+                    userCountCache.activeUsersMatching(search));
+        };
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> getActiveUsers(String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        return toCursorPage(userRepository.findActiveUsersAfter(
+                position.createdAt(), position.id(), PageRequest.of(0, size + 1)), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserDto> searchUsers(String search, String cursor, int size) {
+        KeysetCursor position = KeysetCursor.decode(cursor);
+        List<UserDto> users = searchIndex.searchBefore(search, position, size + 1)
+                .map(this::loadInOrder)
+                .orElseGet(() -> userRepository.findActiveUsersWithSearchAfter(
+                        search, position.createdAt(), position.id(), PageRequest.of(0, size + 1)));
+        return toCursorPage(users, size);
     }
 
     @Override
     public UserDto updateUser(Long id, UserDto userDto) {
+        return updateUser(id, userDto, null);
+    }
+
+    // The version check here rejects stale clients; a write that races past it still fails at
+    // flush, where Hibernate updates only the row version it read.
+    @Override
+    public UserDto updateUser(Long id, UserDto userDto, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        checkVersion(user, expectedVersion);
+        Long previousVersion = user.getVersion();
 
-        if (!user.getUsername().equals(userDto.getUsername()) && existsByUsername(userDto.getUsername())) {
-            throw new ResourceAlreadyExistsException("Username already exists: " + userDto.getUsername());
-        }
-        if (!user.getEmail().equals(userDto.getEmail()) && existsByEmail(userDto.getEmail())) {
-            throw new ResourceAlreadyExistsException("Email already exists: " + userDto.getEmail());
-        }
-
+        userCache.evict(id, user.getUsername(), user.getEmail());
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
 
-        User updatedUser = userRepository.save(user);
-        return mapToDto(updatedUser);
+        User updatedUser = saveUnique(user);
+        availabilityFilter.add(updatedUser.getUsername(), updatedUser.getEmail());
+        return published(UserChangeEvent.Type.UPDATED, updatedUser, previousVersion);
+    }
+
+    // User is @DynamicUpdate, so the flush writes only the patched columns (plus version and
+    // updated_at) and skips the UPDATE entirely when the patch changes nothing. Fields that were
+    // not sent are not in the statement, so their unique keys are not checked either.
+    @Override
+    public UserDto patchUser(Long id, UserPatch patch, Long expectedVersion) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        checkVersion(user, expectedVersion);
+        Long previousVersion = user.getVersion();
+
+        userCache.evict(id, user.getUsername(), user.getEmail());
+        if (patch.getUsername() != null) {
+            user.setUsername(patch.getUsername()
+                    .orElseThrow(() -> new IllegalArgumentException("Username cannot be removed")));
+        }
+        if (patch.getEmail() != null) {
+            user.setEmail(patch.getEmail()
+                    .orElseThrow(() -> new IllegalArgumentException("Email cannot be removed")));
+        }
+
+        User patchedUser = saveUnique(user);
+        availabilityFilter.add(patchedUser.getUsername(), patchedUser.getEmail());
+        return published(UserChangeEvent.Type.UPDATED, patchedUser, previousVersion);
     }
 
     @Override
@@ -107,23 +250,52 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        userCache.evict(id, null, null);
         userRepository.deleteById(id);
+        userCountCache.refreshActiveUsers();
+        changeStream.publish(UserChangeEvent.Type.DELETED, id, null);
     }
 
     @Override
     public void deactivateUser(Long id) {
+        deactivateUser(id, null);
+    }
+
+    @Override
+    public UserVersion deactivateUser(Long id, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        checkVersion(user, expectedVersion);
+        userCache.evict(id, user.getUsername(), user.getEmail());
+        if (Boolean.TRUE.equals(user.getActive())) {
+            userCountCache.adjustActiveUsers(-1);
+        }
+        Long previousVersion = user.getVersion();
         user.setActive(false);
-        userRepository.save(user);
+        User deactivatedUser = userRepository.saveAndFlush(user);
+        published(UserChangeEvent.Type.DEACTIVATED, deactivatedUser, previousVersion);
+        return toVersion(deactivatedUser);
     }
 
     @Override
     public void activateUser(Long id) {
+        activateUser(id, null);
+    }
+
+    @Override
+    public UserVersion activateUser(Long id, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        checkVersion(user, expectedVersion);
+        userCache.evict(id, user.getUsername(), user.getEmail());
+        if (!Boolean.TRUE.equals(user.getActive())) {
+            userCountCache.adjustActiveUsers(1);
+        }
+        Long previousVersion = user.getVersion();
         user.setActive(true);
-        userRepository.save(user);
+        User activatedUser = userRepository.saveAndFlush(user);
+        published(UserChangeEvent.Type.ACTIVATED, activatedUser, previousVersion);
+        return toVersion(activatedUser);
     }
 
     @Override
@@ -138,6 +310,83 @@ public class UserServiceImpl implements UserService {
         return userRepository.existsByEmail(email);
     }
 
+    // No surrounding transaction: a definite miss in the filter must not borrow a connection.
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public UserAvailability checkAvailability(String username, String email) {
+        return new UserAvailability(
+                username == null ? null : !availabilityFilter.mightContainUsername(username)
+                        || !userRepository.existsByUsername(username),
+                email == null ? null : !availabilityFilter.mightContainEmail(email)
+                        || !userRepository.existsByEmail(email));
+    }
+
+    // A cached total can lag behind the rows just read; never report fewer than were seen.
+    private Page<UserDto> withTotal(Slice<UserDto> slice, long approximateTotal) {
+        long seen = slice.getPageable().isPaged()
+                ? slice.getPageable().getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0)
+                : slice.getNumberOfElements();
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(approximateTotal, seen));
+    }
+
+    // Fetches the ids of one index result page, keeping the index order and re-checking that
+    // each row is still active.
+    private List<UserDto> loadInOrder(SearchResult result) {
+        Map<Long, UserDto> users = userRepository.findDtosByIdIn(result.ids()).stream()
+                .collect(Collectors.toMap(UserDto::getId, Function.identity()));
+        return result.ids().stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .filter(UserDto::getActive)
+                .toList();
+    }
+
+    // Queries fetch one extra row so the presence of a next page is known without a count.
+    private CursorPage<UserDto> toCursorPage(List<UserDto> users, int size) {
+        List<UserDto> content = users.size() > size ? users.subList(0, size) : users;
+        String nextCursor = users.size() > size
+                ? KeysetCursor.of(content.get(content.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(content, size, nextCursor);
+    }
+
+    private Optional<UserDto> loadById(Long id) {
+        return userRepository.findDtoById(id);
+    }
+
+    private static void checkVersion(User user, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException("User " + user.getId() + " is at version " + user.getVersion()
+                    + ", not " + expectedVersion);
+        }
+    }
+
+    // Flushed first, so the version is the one the write produced
+    private static UserVersion toVersion(User user) {
+        return new UserVersion(user.getId(), user.getVersion(), user.getUpdatedAt());
+    }
+
+    private User saveUnique(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String field = UniqueConstraintViolation.field(e).orElseThrow(() -> e);
+            throw "username".equals(field)
+                    ? new ResourceAlreadyExistsException("Username already exists: " + user.getUsername(), e)
+                    : new ResourceAlreadyExistsException("Email already exists: " + user.getEmail(), e);
+        }
+    }
+
+    // Sent after commit, so subscribers never see a change that was rolled back. A flush that
+    // wrote nothing leaves the version as it was and is not a change.
+    private UserDto published(UserChangeEvent.Type type, User user, Long previousVersion) {
+        UserDto dto = mapToDto(user);
+        if (previousVersion == null || !previousVersion.equals(user.getVersion())) {
+            changeStream.publish(type, dto.getId(), dto);
+        }
+        return dto;
+    }
+
     private UserDto mapToDto(User user) {
         return new UserDto(
                 user.getId(),
@@ -145,7 +394,8 @@ public class UserServiceImpl implements UserService {
                 user.getEmail(),
                 user.getCreatedAt(),
                 user.getUpdatedAt(),
-                user.getActive()
+                user.getActive(),
+                user.getVersion()
         );
     }
 }
\ No newline at end of file
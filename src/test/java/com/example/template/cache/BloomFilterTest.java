@@ -0,0 +1,45 @@
+package com.example.template.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_NeverMissesAddedValues() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+
+        // Act
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i));
+
+        // Assert
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user" + i)));
+    }
+
+    @Test
+    void mightContain_FalsePositiveRateStaysNearTarget() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user" + i + "@example.com"));
+
+        // Act
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other" + i + "@example.com"))
+                .count();
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(7, filter.hashCount());
+    }
+
+    @Test
+    void constructor_RejectsInvalidSizing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.template.cache;
+
+import com.example.template.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserAvailabilityFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserAvailabilityFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        if (filter != null) {
+            filter.shutdown();
+        }
+    }
+
+    @Test
+    void rebuild_PicksUpNamesTakenElsewhere() {
+        // Arrange
+        filter = filter(Duration.ofMinutes(5));
+        when(userRepository.streamUsernames()).thenReturn(Stream.of("local"), Stream.of("local", "remote"));
+        when(userRepository.streamEmails()).thenReturn(Stream.of("local@example.com"),
+                Stream.of("local@example.com", "remote@example.com"));
+        filter.rebuild();
+        boolean beforeRebuild = filter.mightContainUsername("remote");
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertFalse(beforeRebuild);
+        assertTrue(filter.mightContainUsername("remote"));
+        assertTrue(filter.mightContainEmail("remote@example.com"));
+        assertTrue(filter.mightContainUsername("local"));
+    }
+
+    @Test
+    void rebuild_KeepsSignupsMadeWhileReading() {
+        // Arrange: a signup lands after the usernames were read but before the swap
+        filter = filter(Duration.ofMinutes(5));
+        when(userRepository.streamUsernames()).thenReturn(Stream.of("existing"));
+        when(userRepository.streamEmails()).thenAnswer(invocation -> {
+            filter.add("signup", "signup@example.com");
+            return Stream.of("existing@example.com");
+        });
+
+        // Act
+        filter.rebuild();
+
+        // Assert
+        assertTrue(filter.mightContainUsername("signup"));
+        assertTrue(filter.mightContainEmail("signup@example.com"));
+    }
+
+    @Test
+    void mightContain_FiltersOlderThanTwiceTheInterval_FallThroughToDatabase() throws Exception {
+        // Arrange
+        filter = filter(Duration.ofMillis(50));
+        when(userRepository.streamUsernames()).thenReturn(Stream.empty());
+        when(userRepository.streamEmails()).thenReturn(Stream.empty());
+        filter.rebuild();
+        boolean fresh = filter.mightContainUsername("unknown");
+
+        // Act
+        Thread.sleep(150);
+
+        // Assert
+        assertFalse(fresh);
+        assertTrue(filter.mightContainUsername("unknown"));
+    }
+
+    private UserAvailabilityFilter filter(Duration rebuildInterval) {
+        return new UserAvailabilityFilter(userRepository, transactionManager, 1000, 0.01, rebuildInterval,
+                new SimpleMeterRegistry());
+    }
+}
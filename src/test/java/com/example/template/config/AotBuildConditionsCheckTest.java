@@ -0,0 +1,57 @@
+package com.example.template.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AotBuildConditionsCheckTest {
+
+    private MockEnvironment environment;
+    private DefaultListableBeanFactory beanFactory;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment();
+        beanFactory = new DefaultListableBeanFactory();
+    }
+
+    @Test
+    void aotBuild_RoutingEnabledAfterBuild_FailsStartup() {
+        // Arrange: built without routing, started with DATASOURCE_ROUTING_ENABLED=true
+        environment.setProperty("app.datasource.routing.enabled", "true");
+        AotBuildConditionsCheck check = new AotBuildConditionsCheck(environment, beanFactory, true);
+
+        // Act
+        IllegalStateException e = assertThrows(IllegalStateException.class, check::afterSingletonsInstantiated);
+
+        // Assert
+        assertTrue(e.getMessage().contains("app.datasource.routing.enabled (DATASOURCE_ROUTING_ENABLED) is true"));
+        assertFalse(e.getMessage().contains("spring.threads.virtual.enabled"));
+    }
+
+    @Test
+    void aotBuild_MatchingConditions_Starts() {
+        // Arrange
+        environment.setProperty("app.datasource.routing.enabled", "true");
+        beanFactory.registerBeanDefinition("replicaRoutingDataSource",
+                new RootBeanDefinition(ReplicaRoutingDataSource.class));
+        AotBuildConditionsCheck check = new AotBuildConditionsCheck(environment, beanFactory, true);
+
+        // Act & Assert
+        assertDoesNotThrow(check::afterSingletonsInstantiated);
+    }
+
+    @Test
+    void noAot_ConditionsEvaluatedAtStartup_NothingChecked() {
+        // Arrange
+        environment.setProperty("app.datasource.routing.enabled", "true");
+        AotBuildConditionsCheck check = new AotBuildConditionsCheck(environment, beanFactory, false);
+
+        // Act & Assert
+        assertDoesNotThrow(check::afterSingletonsInstantiated);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.template.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private MeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(true, Duration.ofSeconds(2),
+                new ConcurrencyLimitProperties.Limit(1, 1, 1, 1.0),
+                new ConcurrencyLimitProperties.Limit(1, 1, 1, 1.0));
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+    }
+
+    @Test
+    void readOverLimit_RejectedWith503WhileWritesPass() throws Exception {
+        // Arrange: the outer read holds the only read slot while the inner requests arrive
+        MockHttpServletResponse rejectedRead = new MockHttpServletResponse();
+        MockHttpServletResponse acceptedWrite = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("GET", "/api/users/1"), new MockHttpServletResponse(), (req, res) -> {
+            assertEquals(1.0, gauge("http.concurrency.in.flight", "read"));
+            filter.doFilter(request("GET", "/api/users/2"), rejectedRead, (innerReq, innerRes) -> fail("read was not shed"));
+            filter.doFilter(request("PATCH", "/api/users/1/activate"), acceptedWrite, (innerReq, innerRes) -> { });
+        });
+
+        // Assert
+        assertEquals(503, rejectedRead.getStatus());
+        assertEquals("2", rejectedRead.getHeader("Retry-After"));
+        assertTrue(rejectedRead.getContentAsString().contains("Too many concurrent requests"));
+        assertEquals(200, acceptedWrite.getStatus());
+        assertEquals(1.0, meterRegistry.get("http.concurrency.rejected").tag("group", "read").counter().count());
+        assertEquals(0.0, meterRegistry.get("http.concurrency.rejected").tag("group", "write").counter().count());
+        assertEquals(0.0, gauge("http.concurrency.in.flight", "read"));
+        assertEquals(1.0, gauge("http.concurrency.limit", "read"));
+    }
+
+    @Test
+    void otherPaths_AreNotLimited() throws Exception {
+        // Arrange
+        MockHttpServletResponse health = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("GET", "/api/users/1"), new MockHttpServletResponse(), (req, res) ->
+                filter.doFilter(request("GET", "/actuator/health"), health, (innerReq, innerRes) -> { }));
+
+        // Assert
+        assertEquals(200, health.getStatus());
+        assertEquals(0.0, meterRegistry.get("http.concurrency.rejected").tag("group", "read").counter().count());
+    }
+
+    @Test
+    void mixedLatencyWrites_SlowHashingRequestsDoNotShrinkWriteLimit() throws Exception {
+        // Arrange: write limit 4; twelve ~100 ms creates are held in flight while fast writes run
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties(true, Duration.ofSeconds(2),
+                new ConcurrencyLimitProperties.Limit(4, 2, 8, 1.0),
+                new ConcurrencyLimitProperties.Limit(4, 2, 8, 1.0));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+        int creates = 12;
+        CountDownLatch entered = new CountDownLatch(creates);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(creates);
+        List<Future<MockHttpServletResponse>> createResponses = new ArrayList<>();
+        List<MockHttpServletResponse> fastResponses = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < creates; i++) {
+                String path = i % 3 == 0 ? "/api/users" : i % 3 == 1 ? "/api/users/batch" : "/api/users/import";
+                createResponses.add(executor.submit(() -> {
+                    MockHttpServletResponse response = new MockHttpServletResponse();
+                    filter.doFilter(request("POST", path), response, (req, res) -> {
+                        entered.countDown();
+                        await(release);
+                        sleep(100);
+                    });
+                    return response;
+                }));
+            }
+            assertTrue(entered.await(5, TimeUnit.SECONDS), "creates were shed by the write limiter");
+            for (int i = 0; i < 50; i++) {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request("PATCH", "/api/users/" + i + "/activate"), response, (req, res) -> sleep(2));
+                fastResponses.add(response);
+            }
+            release.countDown();
+            for (Future<MockHttpServletResponse> response : createResponses) {
+                assertEquals(200, response.get(5, TimeUnit.SECONDS).getStatus());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(fastResponses.stream().allMatch(response -> response.getStatus() == 200));
+        assertEquals(0.0, meterRegistry.get("http.concurrency.rejected").tag("group", "write").counter().count());
+        assertTrue(gauge("http.concurrency.limit", "write") >= 4, "write limit shrank");
+        assertEquals(0.0, gauge("http.concurrency.in.flight", "write"));
+    }
+
+    private double gauge(String name, String group) {
+        return meterRegistry.get(name).tag("group", group).gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        request.setServletPath(path);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
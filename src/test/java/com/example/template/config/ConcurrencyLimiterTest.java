@@ -0,0 +1,99 @@
+package com.example.template.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void tryAcquire_AtLimit_RejectsUntilReleased() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties.Limit(2, 1, 10, 0.5));
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void steadyLatencyUnderLoad_GrowsLimit() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties.Limit(10, 1, 100, 1.0));
+        acquire(limiter, 10);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            limiter.release(FAST, false);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() > 10, "limit was " + limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void risingLatency_ShrinksLimit() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties.Limit(50, 1, 100, 1.0));
+        acquire(limiter, 50);
+        limiter.release(FAST, false);
+
+        // Act: the same load now takes ten times as long, i.e. requests are queueing
+        for (int i = 0; i < 49; i++) {
+            limiter.release(SLOW, false);
+        }
+
+        // Assert
+        assertTrue(limiter.getLimit() < 50, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    void lightLoad_LeavesLimitUnchanged() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties.Limit(50, 1, 100, 1.0));
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(i % 2 == 0 ? FAST : SLOW, false);
+        }
+
+        // Assert
+        assertEquals(50, limiter.getLimit());
+    }
+
+    @Test
+    void drops_ShrinkLimitDownToMinimum() {
+        // Arrange
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new ConcurrencyLimitProperties.Limit(20, 5, 100, 1.0));
+
+        // Act
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        int afterOneDrop = limiter.getLimit();
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, true);
+        }
+
+        // Assert
+        assertTrue(afterOneDrop < 20);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    private static void acquire(ConcurrencyLimiter limiter, int permits) {
+        for (int i = 0; i < permits; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.template.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsoLocalDateTimeSerializerTest {
+
+    private final ObjectMapper jackson = mapper(false);
+    private final ObjectMapper fast = mapper(true);
+
+    @Test
+    void serialize_MatchesJacksonIsoOutput() throws Exception {
+        // Arrange: whole seconds, millis, micros and nanos, and years needing zero padding
+        Random random = new Random(42);
+        assertInstanceOf(IsoLocalDateTimeSerializer.class,
+                fast.getSerializerProviderInstance().findValueSerializer(LocalDateTime.class));
+
+        for (int i = 0; i < 10_000; i++) {
+            int nano = switch (i % 4) {
+                case 0 -> 0;
+                case 1 -> random.nextInt(1000) * 1_000_000;
+                case 2 -> random.nextInt(1_000_000) * 1000;
+                default -> random.nextInt(1_000_000_000);
+            };
+            LocalDateTime value = LocalDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), nano);
+
+            // Act & Assert
+            assertEquals(jackson.writeValueAsString(value), fast.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void serialize_PatternAndTimestampSettingsStillApply() throws Exception {
+        // Arrange
+        LocalDateTime value = LocalDateTime.of(2024, 3, 9, 7, 5, 0);
+        ObjectMapper timestamps = fast.copy().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // Act & Assert
+        assertEquals("{\"at\":\"09.03.2024\"}", fast.writeValueAsString(new Formatted(value)));
+        assertEquals("{\"plain\":\"2024-03-09T07:05:00\"}", fast.writeValueAsString(Map.of("plain", value)));
+        assertEquals("[2024,3,9,7,5]", timestamps.writeValueAsString(value));
+        assertEquals(jackson.writeValueAsString(LocalDateTime.MAX), fast.writeValueAsString(LocalDateTime.MAX));
+    }
+
+    private static ObjectMapper mapper(boolean withIsoSerializer) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (withIsoSerializer) {
+            builder.modulesToInstall(new JacksonConfig().isoLocalDateTimeModule());
+        }
+        return builder.build();
+    }
+
+    record Formatted(@JsonFormat(pattern = "dd.MM.yyyy") LocalDateTime at) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.template.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replicaOne;
+
+    @Mock
+    private DataSource replicaTwo;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaOneConnection;
+
+    @Mock
+    private Connection replicaTwoConnection;
+
+    private MeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicaOne, replicaTwo),
+                Duration.ofHours(1), Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplicasRoundRobin() throws SQLException {
+        // Arrange
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        when(replicaTwo.getConnection()).thenReturn(replicaTwoConnection);
+        transaction(true);
+
+        // Act & Assert
+        assertSame(replicaOneConnection, routing.getConnection());
+        assertSame(replicaTwoConnection, routing.getConnection());
+        assertSame(replicaOneConnection, routing.getConnection());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void writeTransactionOrNoTransaction_UsesPrimary() throws SQLException {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act & Assert
+        assertSame(primaryConnection, routing.getConnection());
+        transaction(false);
+        assertSame(primaryConnection, routing.getConnection());
+        verifyNoInteractions(replicaOne, replicaTwo);
+    }
+
+    @Test
+    void failingReplica_ExcludedUntilHealthCheckPasses() throws Exception {
+        // Arrange
+        routing.close();
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicaOne),
+                Duration.ofHours(1), Duration.ofSeconds(1), meterRegistry);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaOne.getConnection()).thenThrow(new SQLException("Connection refused"));
+        transaction(true);
+
+        // Act: the failed read falls back, and the next one does not try the replica again
+        Connection fallback = routing.getConnection();
+        Connection excluded = routing.getConnection();
+
+        // Assert
+        assertSame(primaryConnection, fallback);
+        assertSame(primaryConnection, excluded);
+        verify(replicaOne, times(1)).getConnection();
+        assertEquals(0.0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-1").gauge().value());
+
+        // Act: the replica recovers
+        reset(replicaOne);
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        when(replicaOneConnection.isValid(anyInt())).thenReturn(true);
+        routing.checkReplicas();
+
+        // Assert
+        assertSame(replicaOneConnection, routing.getConnection());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-1").gauge().value());
+    }
+
+    @Test
+    void sessionThatWrote_ReadsFromPrimary() throws SQLException {
+        // Arrange
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaOne.getConnection()).thenReturn(replicaOneConnection);
+        AtomicInteger firstWrites = new AtomicInteger();
+
+        try (ReadYourWrites.Session session = ReadYourWrites.open(false, firstWrites::incrementAndGet)) {
+            // Act
+            transaction(false);
+            routing.getConnection();
+            routing.getConnection();
+            transaction(true);
+            Connection read = routing.getConnection();
+
+            // Assert
+            assertTrue(session.hasWritten());
+            assertSame(primaryConnection, read);
+            assertEquals(1, firstWrites.get());
+        }
+
+        // Outside the session reads go back to the replicas
+        assertSame(replicaOneConnection, routing.getConnection());
+    }
+
+    private static void transaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+}
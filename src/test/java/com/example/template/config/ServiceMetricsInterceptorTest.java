@@ -0,0 +1,98 @@
+package com.example.template.config;
+
+import com.example.template.dto.CursorPage;
+import com.example.template.dto.UserDto;
+import com.example.template.exception.ResourceAlreadyExistsException;
+import com.example.template.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsInterceptorTest {
+
+    @Mock
+    private UserService target;
+
+    private MeterRegistry meterRegistry;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(UserService.class);
+        proxyFactory.addAdvice(new ServiceMetricsInterceptor(beanFactory.getBeanProvider(MeterRegistry.class)));
+        userService = (UserService) proxyFactory.getProxy();
+    }
+
+    @Test
+    void emptyResult_CountsNotFoundAndTimesCall() {
+        // Arrange
+        when(target.getUserById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        userService.getUserById(1L);
+        userService.getUserById(1L);
+
+        // Assert
+        assertEquals(2, meterRegistry.get("users.service.invocations").tag("method", "getUserById").timer().count());
+        assertEquals(2, meterRegistry.get("users.not.found").tag("method", "getUserById").counter().count());
+    }
+
+    @Test
+    void createUser_CountsCreatedAndConflicts() {
+        // Arrange
+        when(target.createUser(any(UserDto.class), anyString()))
+                .thenReturn(new UserDto())
+                .thenThrow(new ResourceAlreadyExistsException("Username already exists: testuser"));
+
+        // Act
+        userService.createUser(new UserDto(), "password123");
+        assertThrows(ResourceAlreadyExistsException.class, () -> userService.createUser(new UserDto(), "password123"));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("users.created").tag("method", "createUser").counter().count());
+        assertEquals(1, meterRegistry.get("users.conflicts").tag("method", "createUser").counter().count());
+        assertEquals(2, meterRegistry.get("users.service.invocations").tag("method", "createUser").timer().count());
+    }
+
+    @Test
+    void overloads_TimedSeparately() {
+        // Arrange
+        when(target.getActiveUsers(any(Pageable.class))).thenReturn(Page.empty());
+        when(target.getActiveUsers(anyString(), anyInt())).thenReturn(new CursorPage<>(List.of(), 20, null));
+
+        // Act
+        userService.getActiveUsers(PageRequest.of(0, 20));
+        userService.getActiveUsers("", 20);
+        userService.getActiveUsers("", 20);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("users.service.invocations")
+                .tags("method", "getActiveUsers", "signature", "Pageable").timer().count());
+        assertEquals(2, meterRegistry.get("users.service.invocations")
+                .tags("method", "getActiveUsers", "signature", "String,int").timer().count());
+    }
+}
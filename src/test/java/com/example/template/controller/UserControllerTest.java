@@ -1,6 +1,24 @@
 package com.example.template.controller;
 
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BatchCreateResult;
+import com.example.template.dto.BulkUpdateResponse;
+import com.example.template.dto.BulkUserRequest;
+import com.example.template.dto.CursorPage;
+import com.example.template.dto.DataFormat;
+import com.example.template.dto.ImportReport;
+import com.example.template.dto.TotalCount;
+import com.example.template.dto.UserAvailability;
 import com.example.template.dto.UserDto;
+import com.example.template.dto.UserPatch;
+import com.example.template.dto.UserVersion;
+import com.example.template.events.UserChangeStream;
+import com.example.template.exception.PreconditionFailedException;
+import com.example.template.exception.ResourceNotFoundException;
+import com.example.template.exception.ServiceOverloadedException;
+import com.example.template.service.UserBatchService;
+import com.example.template.service.UserExportService;
+import com.example.template.service.UserImportService;
 import com.example.template.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,17 +28,30 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -35,6 +66,18 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserBatchService userBatchService;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private UserChangeStream userChangeStream;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -49,6 +92,7 @@ class UserControllerTest {
         testUserDto.setActive(true);
         testUserDto.setCreatedAt(LocalDateTime.now());
         testUserDto.setUpdatedAt(LocalDateTime.now());
+        testUserDto.setVersion(3L);
     }
 
     @Test
@@ -73,6 +117,27 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.active").value(true));
     }
 
+    @Test
+    @WithMockUser
+    void createUser_HashingOverloaded_ServiceUnavailable() throws Exception {
+        // Arrange
+        Map<String, String> request = new HashMap<>();
+        request.put("username", "testuser");
+        request.put("email", "test@example.com");
+        request.put("password", "password123");
+
+        when(userService.createUser(any(UserDto.class), anyString()))
+                .thenThrow(new ServiceOverloadedException("Password hashing capacity exceeded, retry later", Duration.ofSeconds(2)));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
     @Test
     @WithMockUser
     void createUser_MissingPassword_BadRequest() throws Exception {
@@ -89,6 +154,63 @@ class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @WithMockUser
+    void createUsers_Batch_ReturnsPerItemResults() throws Exception {
+        // Arrange
+        BatchCreateResponse response = new BatchCreateResponse(List.of(
+                BatchCreateResult.created(0, testUserDto),
+                BatchCreateResult.conflict(1, "Username already exists: testuser")));
+        when(userBatchService.createUsers(anyList())).thenReturn(response);
+
+        List<Map<String, String>> request = List.of(
+                Map.of("username", "testuser", "email", "test@example.com", "password", "password123"),
+                Map.of("username", "testuser", "email", "other@example.com", "password", "password123"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.conflicts").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].user.username").value("testuser"))
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"));
+    }
+
+    @Test
+    @WithMockUser
+    void deactivateUsers_Bulk_ReturnsAffectedCount() throws Exception {
+        // Arrange
+        when(userBatchService.deactivateUsers(any(BulkUserRequest.class))).thenReturn(new BulkUpdateResponse(3, 2, 1));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/bulk/deactivate")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("ids", List.of(1, 2, 3)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(3))
+                .andExpect(jsonPath("$.affected").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void deleteUsers_Bulk_WithoutSelection_ReturnsBadRequest() throws Exception {
+        // Arrange
+        when(userBatchService.deleteUsers(any(BulkUserRequest.class)))
+                .thenThrow(new IllegalArgumentException("Provide either ids or a search filter"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser
     void getUserById_Found() throws Exception {
@@ -98,9 +220,101 @@ class UserControllerTest {
         // Act & Assert
         mockMvc.perform(get("/api/users/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(header().exists("Last-Modified"))
+                .andExpect(header().string("Cache-Control", "no-cache"))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.username").value("testuser"))
-                .andExpect(jsonPath("$.email").value("test@example.com"));
+                .andExpect(jsonPath("$.email").value("test@example.com"))
+                .andExpect(jsonPath("$.version").value(3));
+        verify(userService, never()).getUserVersion(any());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserById_MatchingETag_NotModifiedWithoutLoadingUser() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(UserVersion.of(testUserDto)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+        verify(userService, never()).getUserById(any());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserById_UpdatedAfterVersionLookup_ValidatorsMatchReturnedUser() throws Exception {
+        // Arrange: the user changes between the version lookup and the load
+        LocalDateTime updatedAt = LocalDateTime.of(2030, 1, 1, 12, 0);
+        UserDto newer = new UserDto(1L, "testuser", "test@example.com", null, updatedAt, true, 4L);
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(UserVersion.of(testUserDto)));
+        when(userService.getUserById(1L)).thenReturn(Optional.of(newer));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"1-4\""))
+                .andExpect(header().dateValue("Last-Modified",
+                        updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserById_Cbor_FormatSpecificETagAndVary() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(1L)).thenReturn(Optional.of(UserVersion.of(testUserDto)));
+        when(userService.getUserById(1L)).thenReturn(Optional.of(testUserDto));
+
+        // Act & Assert: the JSON tag does not validate the CBOR representation
+        mockMvc.perform(get("/api/users/1").accept("application/cbor").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().stringValues("ETag", "\"1-3+cbor\""))
+                .andExpect(header().string("Vary", containsString("Accept")));
+        mockMvc.perform(get("/api/users/1").accept("application/cbor").header("If-None-Match", "\"1-3+cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3+cbor\""))
+                .andExpect(header().string("Vary", containsString("Accept")));
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"1-3+cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"1-3\""))
+                .andExpect(header().string("Vary", containsString("Accept")));
+    }
+
+    @Test
+    @WithMockUser
+    void updateUser_IfMatchWithFormatSuffix_UsesVersion() throws Exception {
+        // Arrange
+        UserDto updatedUserDto = new UserDto(1L, "updateduser", "updated@example.com", null, null, true, 4L);
+        when(userService.updateUser(eq(1L), any(UserDto.class), eq(3L))).thenReturn(updatedUserDto);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/1")
+                .with(csrf())
+                .header("If-Match", "\"1-3+smile\"")
+                .accept("application/x-jackson-smile")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedUserDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", "\"1-4+smile\""));
+    }
+
+    @Test
+    @WithMockUser
+    void getUserByUsername_StaleETag_ReturnsUser() throws Exception {
+        // Arrange
+        when(userService.getUserVersionByUsername("testuser")).thenReturn(Optional.of(UserVersion.of(testUserDto)));
+        when(userService.getUserByUsername("testuser")).thenReturn(Optional.of(testUserDto));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/username/testuser").header("If-None-Match", "\"1-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(jsonPath("$.username").value("testuser"));
     }
 
     @Test
@@ -114,6 +328,18 @@ class UserControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser
+    void getUserById_ConditionalNotFound_DoesNotLoadUser() throws Exception {
+        // Arrange
+        when(userService.getUserVersion(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/1").header("If-Modified-Since", "Wed, 01 Jan 2020 00:00:00 GMT"))
+                .andExpect(status().isNotFound());
+        verify(userService, never()).getUserById(any());
+    }
+
     @Test
     @WithMockUser
     void getAllUsers_Success() throws Exception {
@@ -122,11 +348,42 @@ class UserControllerTest {
         when(userService.getActiveUsers(any())).thenReturn(page);
 
         // Act & Assert
-        mockMvc.perform(get("/api/users"))
+        String etag = mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content[0].username").value("testuser"))
-                .andExpect(jsonPath("$.totalElements").value(1));
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        testUserDto.setVersion(4L);
+        mockMvc.perform(get("/api/users").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllUsers_WithoutTotal_ReturnsSlice() throws Exception {
+        // Arrange
+        SliceImpl<UserDto> slice = new SliceImpl<>(Collections.singletonList(testUserDto), PageRequest.of(0, 20), false);
+        when(userService.getActiveUsers(any(), eq(TotalCount.NONE))).thenReturn(slice);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").param("total", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].username").value("testuser"))
+                .andExpect(jsonPath("$.last").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllUsers_InvalidTotalMode_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users").param("total", "sometimes"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -143,6 +400,29 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.content[0].username").value("testuser"));
     }
 
+    @Test
+    @WithMockUser
+    void getUsersByCursor_Success() throws Exception {
+        // Arrange
+        CursorPage<UserDto> page = new CursorPage<>(Collections.singletonList(testUserDto), 1, "next");
+        when(userService.getActiveUsers(eq(""), eq(1))).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users").param("cursor", "").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].username").value("testuser"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser
+    void getUsersByCursor_InvalidSize_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users").param("cursor", "").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @WithMockUser
     void updateUser_Success() throws Exception {
@@ -152,7 +432,7 @@ class UserControllerTest {
         updatedUserDto.setUsername("updateduser");
         updatedUserDto.setEmail("updated@example.com");
 
-        when(userService.updateUser(eq(1L), any(UserDto.class))).thenReturn(updatedUserDto);
+        when(userService.updateUser(eq(1L), any(UserDto.class), isNull())).thenReturn(updatedUserDto);
 
         // Act & Assert
         mockMvc.perform(put("/api/users/1")
@@ -164,6 +444,130 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("updated@example.com"));
     }
 
+    @Test
+    @WithMockUser
+    void updateUser_IfMatch_PassesVersionAndReturnsNewETag() throws Exception {
+        // Arrange
+        UserDto updatedUserDto = new UserDto(1L, "updateduser", "updated@example.com", null, null, true, 4L);
+        when(userService.updateUser(eq(1L), any(UserDto.class), eq(3L))).thenReturn(updatedUserDto);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/1")
+                .with(csrf())
+                .header("If-Match", "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedUserDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""));
+    }
+
+    @Test
+    @WithMockUser
+    void updateUser_StaleIfMatch_Returns412() throws Exception {
+        // Arrange
+        UserDto update = new UserDto(1L, "updateduser", "updated@example.com", null, null, true, 3L);
+        when(userService.updateUser(eq(1L), any(UserDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("User 1 is at version 4, not 3"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/1")
+                .with(csrf())
+                .header("If-Match", "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.message").value("User 1 is at version 4, not 3"));
+    }
+
+    @Test
+    @WithMockUser
+    void updateUser_NotFound_Returns404() throws Exception {
+        // Arrange
+        UserDto update = new UserDto(99L, "updateduser", "updated@example.com", null, null, true, null);
+        when(userService.updateUser(eq(99L), any(UserDto.class), isNull()))
+                .thenThrow(new ResourceNotFoundException("User not found with id: 99"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/99")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    void updateUser_ExceptionWithoutMessage_Returns400() throws Exception {
+        // Arrange
+        UserDto update = new UserDto(1L, "updateduser", "updated@example.com", null, null, true, null);
+        when(userService.updateUser(eq(1L), any(UserDto.class), isNull())).thenThrow(new IllegalStateException());
+
+        // Act & Assert
+        mockMvc.perform(put("/api/users/1")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void activateUser_IfMatchForAnotherUser_Returns412WithoutWriting() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/1/activate")
+                .with(csrf())
+                .header("If-Match", "\"2-3\""))
+                .andExpect(status().isPreconditionFailed());
+        verify(userService, never()).activateUser(anyLong(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void patchUser_MergePatch_PassesOnlySentFields() throws Exception {
+        // Arrange
+        UserDto patchedUserDto = new UserDto(1L, "testuser", "new@example.com", null, null, true, 4L);
+        when(userService.patchUser(eq(1L), argThat(patch -> patch.getUsername() == null
+                && Optional.of("new@example.com").equals(patch.getEmail())), eq(3L))).thenReturn(patchedUserDto);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/1")
+                .with(csrf())
+                .header("If-Match", "\"1-3\"")
+                .contentType(UserPatch.MEDIA_TYPE)
+                .content("{\"email\":\"new@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-4\""))
+                .andExpect(jsonPath("$.email").value("new@example.com"));
+    }
+
+    @Test
+    @WithMockUser
+    void patchUser_InvalidOrRemovedField_Returns400WithoutWriting() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/1")
+                .with(csrf())
+                .contentType(UserPatch.MEDIA_TYPE)
+                .content("{\"username\":null,\"email\":\"not-an-email\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fieldErrors.username").value("Username is required"))
+                .andExpect(jsonPath("$.fieldErrors.email").value("Email should be valid"));
+        verify(userService, never()).patchUser(anyLong(), any(), any());
+    }
+
+    @Test
+    @WithMockUser
+    void streamChanges_ResumesFromLastEventId() throws Exception {
+        // Arrange
+        when(userChangeStream.subscribe("abc-3")).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/changes")
+                .header("Last-Event-ID", "abc-3")
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(userChangeStream).subscribe("abc-3");
+    }
+
     @Test
     @WithMockUser
     void deleteUser_Success() throws Exception {
@@ -176,6 +580,9 @@ class UserControllerTest {
     @Test
     @WithMockUser
     void deactivateUser_Success() throws Exception {
+        // Arrange
+        when(userService.deactivateUser(1L, null)).thenReturn(new UserVersion(1L, 2L, null));
+
         // Act & Assert
         mockMvc.perform(patch("/api/users/1/deactivate")
                 .with(csrf()))
@@ -185,9 +592,115 @@ class UserControllerTest {
     @Test
     @WithMockUser
     void activateUser_Success() throws Exception {
+        // Arrange
+        when(userService.activateUser(1L, null)).thenReturn(new UserVersion(1L, 2L, null));
+
         // Act & Assert
         mockMvc.perform(patch("/api/users/1/activate")
                 .with(csrf()))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"1-2\""));
+    }
+
+    @Test
+    @WithMockUser
+    void exportUsers_Csv_StreamsAttachment() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("id,username\r\n1,testuser\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userExportService).exportUsers(eq(DataFormat.CSV), eq(true), any(OutputStream.class));
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                .param("format", "csv")
+                .param("activeOnly", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,username\r\n1,testuser\r\n"));
+    }
+
+    @Test
+    @WithMockUser
+    void exportUsers_InvalidFormat_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/export")
+                .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void importUsers_Ndjson_ReturnsReport() throws Exception {
+        // Arrange
+        ImportReport report = new ImportReport();
+        report.setRows(2);
+        report.setCreated(1);
+        report.setInvalid(1);
+        report.getErrors().add(BatchCreateResult.invalid(1, "email: must be a well-formed email address"));
+        when(userImportService.importUsers(eq(DataFormat.NDJSON), any(InputStream.class))).thenReturn(report);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                .with(csrf())
+                .contentType("application/x-ndjson")
+                .content("{\"username\":\"a\"}\n{\"username\":\"b\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].status").value("INVALID"));
+    }
+
+    @Test
+    @WithMockUser
+    void importUsers_StoppedByOverload_ServiceUnavailableWithReport() throws Exception {
+        // Arrange
+        ImportReport report = new ImportReport();
+        report.setRows(1000);
+        report.setCreated(1000);
+        report.setChunks(1);
+        report.setResumeFromRow(1000L);
+        report.setRetryAfterSeconds(2L);
+        when(userImportService.importUsers(eq(DataFormat.NDJSON), any(InputStream.class))).thenReturn(report);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                .with(csrf())
+                .contentType("application/x-ndjson")
+                .content("{\"username\":\"a\"}\n"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.created").value(1000))
+                .andExpect(jsonPath("$.resumeFromRow").value(1000));
+    }
+
+    @Test
+    @WithMockUser
+    void checkAvailability_ReturnsRequestedFieldsOnly() throws Exception {
+        // Arrange
+        when(userService.checkAvailability("newname", null)).thenReturn(new UserAvailability(true, null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/availability")
+                .param("username", "newname"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.usernameAvailable").value(true))
+                .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser
+    void checkAvailability_NothingToCheck_BadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/availability")
+                .param("username", " "))
+                .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.example.template.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserChangeStreamTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    private MeterRegistry meterRegistry;
+    private UserChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stream = new UserChangeStream(2, 100, 10, Duration.ofMinutes(1), Duration.ZERO, Duration.ofSeconds(1),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    void publishedChanges_ReachSubscriberInOrder() throws Exception {
+        // Arrange
+        RecordingEmitter subscriber = new RecordingEmitter();
+        stream.subscribe(null, subscriber);
+
+        // Act
+        stream.publish(UserChangeEvent.Type.CREATED, 1L, null);
+        stream.publish(UserChangeEvent.Type.DELETED, 1L, null);
+
+        // Assert
+        assertTrue(subscriber.next().contains("event:created"));
+        assertTrue(subscriber.next().contains("event:deleted"));
+    }
+
+    @Test
+    void lastEventId_ReplaysOnlyMissedChanges() throws Exception {
+        // Arrange
+        RecordingEmitter live = new RecordingEmitter();
+        stream.subscribe(null, live);
+        stream.publish(UserChangeEvent.Type.CREATED, 1L, null);
+        String firstId = idOf(live.next());
+        stream.publish(UserChangeEvent.Type.DEACTIVATED, 1L, null);
+        stream.publish(UserChangeEvent.Type.ACTIVATED, 1L, null);
+
+        // Act
+        RecordingEmitter resumed = new RecordingEmitter();
+        stream.subscribe(firstId, resumed);
+
+        // Assert
+        assertTrue(resumed.next().contains("event:deactivated"));
+        assertTrue(resumed.next().contains("event:activated"));
+        assertNull(resumed.sent.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void unknownLastEventId_SendsResetWithCurrentId() throws Exception {
+        // Arrange
+        RecordingEmitter live = new RecordingEmitter();
+        stream.subscribe(null, live);
+        stream.publish(UserChangeEvent.Type.CREATED, 1L, null);
+        String latestId = idOf(live.next());
+
+        // Act
+        RecordingEmitter resumed = new RecordingEmitter();
+        stream.subscribe("earlier-process-7", resumed);
+
+        // Assert
+        String reset = resumed.next();
+        assertTrue(reset.contains("event:" + UserChangeStream.RESET_EVENT));
+        assertEquals(latestId, idOf(reset));
+    }
+
+    @Test
+    void slowSubscriber_DroppedWhenBufferOverflows() throws Exception {
+        // Arrange: the first send blocks, so later changes pile up in the two-event buffer
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter();
+        stream.subscribe(null, slow);
+        stream.subscribe(null, fast);
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            stream.publish(UserChangeEvent.Type.CREATED, id, null);
+            fast.next();
+        }
+        release.countDown();
+
+        // Assert
+        assertEquals(1, stream.subscriberCount());
+        assertEquals(1.0, meterRegistry.get("users.changes.dropped").counter().count());
+        assertEquals(5.0, meterRegistry.get("users.changes.published").counter().count());
+    }
+
+    @Test
+    void publishInTransaction_SentOnlyAfterCommit() throws Exception {
+        // Arrange
+        RecordingEmitter subscriber = new RecordingEmitter();
+        stream.subscribe(null, subscriber);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            stream.publish(UserChangeEvent.Type.UPDATED, 1L, null);
+            assertNull(subscriber.sent.poll(100, TimeUnit.MILLISECONDS));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertTrue(subscriber.next().contains("event:updated"));
+    }
+
+    private static String idOf(String event) {
+        Matcher matcher = EVENT_ID.matcher(event);
+        assertTrue(matcher.find(), "no id in " + event);
+        return matcher.group(1);
+    }
+
+    // Captures the wire text of each event instead of writing to a response.
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            sent.add(builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event received");
+            return event;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.template.integration;
+
+import com.example.template.cache.UserCache;
+import com.example.template.config.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import jakarta.servlet.http.Cookie;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Routes against two separate H2 databases. Nothing replicates between them, so a row that only
+ * one of them holds shows which database served a read. The replica database does not exist
+ * while the context starts ({@code IFEXISTS}), so startup reads fall back to the primary and each
+ * test creates it with the primary's schema before re-checking replica health.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.yml", properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.replicas[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "app.datasource.routing.replicas[0].username=sa",
+        // The 1s default is too short for a new connection while a loaded build runs other contexts
+        "app.datasource.routing.replicas[0].connection-timeout=5s",
+        "app.datasource.routing.sticky-window=5s",
+        "app.datasource.routing.health-check-interval=1h"
+})
+@DirtiesContext
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;IFEXISTS=TRUE";
+    private static final Duration HIKARI_ALIVE_BYPASS_WINDOW = Duration.ofMillis(500);
+    private static final String REPLICA_CREATE_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    private ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_CREATE_URL, "sa", ""));
+
+        // Stand the replica up with the primary's schema and no rows
+        replica.execute("DROP ALL OBJECTS");
+        for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+            if (!statement.startsWith("CREATE USER")) {
+                replica.execute(statement);
+            }
+        }
+        primary.update("DELETE FROM users");
+        userCache.evictAll();
+        replicaRoutingDataSource.checkReplicas();
+    }
+
+    @Test
+    void reads_ServedByReplica() throws Exception {
+        // Arrange
+        insert(replica, 100L, "replicaonly");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/username/replicaonly")).andExpect(status().isOk());
+        assertEquals(0, count(primary, "replicaonly"));
+    }
+
+    @Test
+    void writes_GoToPrimaryAndPinClientReads() throws Exception {
+        // Act
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"writer\",\"email\":\"writer@example.com\",\"password\":\"password123\"}"))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        // Assert: the replica has not seen the write, so only a pinned client finds the user
+        assertEquals(1, count(primary, "writer"));
+        assertEquals(0, count(replica, "writer"));
+        Cookie pin = created.getResponse().getCookie("read-primary-until");
+        assertNotNull(pin);
+        mockMvc.perform(get("/api/users/username/writer")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/users/username/writer").cookie(pin)).andExpect(status().isOk());
+    }
+
+    @Test
+    void unhealthyReplica_ReadsFallBackToPrimary() throws Exception {
+        // Arrange: once pooled connections have idled past Hikari's validation bypass window, the pool
+        // notices they are dead and fails to open new ones
+        insert(primary, 200L, "primaryonly");
+        replica.execute("SHUTDOWN");
+        Thread.sleep(HIKARI_ALIVE_BYPASS_WINDOW.toMillis() + 100);
+
+        // Act
+        replicaRoutingDataSource.checkReplicas();
+
+        // Assert
+        assertEquals(0.0, meterRegistry.get("datasource.replica.healthy").tag("replica", "replica-1").gauge().value());
+        mockMvc.perform(get("/api/users/username/primaryonly")).andExpect(status().isOk());
+    }
+
+    private static void insert(JdbcTemplate jdbc, long id, String username) {
+        jdbc.update("INSERT INTO users (id, username, email, password, created_at, updated_at, active, version) "
+                + "VALUES (?, ?, ?, 'password', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE, 0)",
+                id, username, username + "@example.com");
+    }
+
+    private static int count(JdbcTemplate jdbc, String username) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, username);
+    }
+}
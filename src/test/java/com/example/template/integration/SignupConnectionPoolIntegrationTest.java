@@ -0,0 +1,86 @@
+package com.example.template.integration;
+
+import com.example.template.dto.UserDto;
+import com.example.template.security.BoundedPasswordEncoder;
+import com.example.template.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Holds more signups in password hashing than the pool has connections. Hashing runs before the
+ * insert transaction, so the waiting signups hold no connection and reads are still served.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application-test.yml", properties = {
+        "spring.datasource.url=jdbc:h2:mem:signup-pool;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+@DirtiesContext
+class SignupConnectionPoolIntegrationTest {
+
+    private static final int SIGNUPS = 6;
+
+    @MockBean
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void signupsWaitingForHashing_HoldNoConnections() throws Exception {
+        // Arrange: every hash blocks until released, like a saturated BCrypt executor
+        CountDownLatch hashing = new CountDownLatch(SIGNUPS);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            hashing.countDown();
+            assertTrue(release.await(30, TimeUnit.SECONDS));
+            return "hashed";
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(SIGNUPS);
+        List<Future<UserDto>> signups = new ArrayList<>(SIGNUPS);
+        try {
+            for (int i = 0; i < SIGNUPS; i++) {
+                UserDto user = new UserDto();
+                user.setUsername("waiting" + i);
+                user.setEmail("waiting" + i + "@example.com");
+                signups.add(executor.submit(() -> userService.createUser(user, "password123")));
+            }
+            assertTrue(hashing.await(10, TimeUnit.SECONDS));
+
+            // Act & Assert: a read gets a connection within the pool's 1s timeout
+            assertEquals(0, ((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections());
+            assertTrue(userService.getUserByUsername("waiting0").isEmpty());
+
+            release.countDown();
+            for (Future<UserDto> signup : signups) {
+                assertNotNull(signup.get(10, TimeUnit.SECONDS).getId());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        assertTrue(userService.getUserByUsername("waiting0").isPresent());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.template.integration;
+
+import com.example.template.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires pairs of colliding signups from a growing number of threads against the real HTTP stack.
+ * Every pair must end with exactly one 201 and one 409 naming the contested field: no 500s and
+ * no duplicate rows, however many requests race.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@DirtiesContext
+class UserConcurrencyIntegrationTest {
+
+    private static final int[] CONCURRENCY_LEVELS = {4, 8, 16};
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentSignups_NoDuplicatesAndNoServerErrors() throws Exception {
+        int expectedUsers = 0;
+        for (int threads : CONCURRENCY_LEVELS) {
+            // Arrange: request i collides with request i ^ 1, on the username for even pairs and the email for odd pairs
+            List<Map<String, String>> requests = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                int pair = i / 2;
+                String id = "stress" + threads + "x" + pair;
+                requests.add(pair % 2 == 0
+                        ? Map.of("username", id, "email", id + "n" + i + "@example.com", "password", "password123")
+                        : Map.of("username", id + "n" + i, "email", id + "@example.com", "password", "password123"));
+            }
+
+            // Act
+            List<ResponseEntity<String>> responses = postConcurrently(requests, threads);
+
+            // Assert
+            for (int pair = 0; pair < threads / 2; pair++) {
+                ResponseEntity<String> first = responses.get(2 * pair);
+                ResponseEntity<String> second = responses.get(2 * pair + 1);
+                Set<Integer> statuses = Set.of(first.getStatusCode().value(), second.getStatusCode().value());
+                assertEquals(Set.of(201, 409), statuses, "pair " + pair + " at " + threads + " threads");
+
+                ResponseEntity<String> conflict = first.getStatusCode().value() == 409 ? first : second;
+                JsonNode error = objectMapper.readTree(conflict.getBody());
+                assertTrue(error.get("message").asText().startsWith(pair % 2 == 0 ? "Username" : "Email"),
+                        error.get("message").asText());
+            }
+            expectedUsers += threads / 2;
+        }
+
+        // Verify in database
+        assertEquals(expectedUsers, userRepository.count());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        userRepository.findAll().forEach(user -> {
+            assertTrue(usernames.add(user.getUsername()));
+            assertTrue(emails.add(user.getEmail()));
+        });
+    }
+
+    private List<ResponseEntity<String>> postConcurrently(List<Map<String, String>> requests, int threads)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<ResponseEntity<String>>> futures = new ArrayList<>(requests.size());
+            for (Map<String, String> request : requests) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return restTemplate.postForEntity("/api/users", request, String.class);
+                }));
+            }
+            start.countDown();
+
+            List<ResponseEntity<String>> responses = new ArrayList<>(futures.size());
+            for (Future<ResponseEntity<String>> future : futures) {
+                responses.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return responses;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.template.integration;
 
 import com.example.template.Application;
+import com.example.template.config.IsoLocalDateTimeSerializer;
 import com.example.template.dto.UserDto;
 import com.example.template.model.User;
 import com.example.template.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,13 +20,24 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -42,6 +58,9 @@ class UserIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private MockMvc mockMvc;
 
     @BeforeEach
@@ -78,6 +97,12 @@ class UserIntegrationTest {
         // Verify in database
         assert(userRepository.existsByUsername("integrationtest"));
         assert(userRepository.existsByEmail("integration@test.com"));
+
+        // Verify metrics
+        assertEquals(1, meterRegistry.get("users.created").tag("method", "createUser").counter().count());
+        assertEquals(1, meterRegistry.get("users.service.invocations").tag("method", "createUser").timer().count());
+        assert(meterRegistry.get("spring.data.repository.invocations")
+                .tag("repository", "UserRepository").tag("method", "saveAndFlush").timer().count() == 1);
     }
 
     @Test
@@ -101,6 +126,33 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.active").value(true));
     }
 
+    @Test
+    @WithMockUser
+    void getUsers_BinaryFormats_NegotiatedByAccept() throws Exception {
+        // Arrange
+        User savedUser = userRepository.save(new User("binaryuser", "binary@example.com", "password"));
+
+        // Act
+        MvcResult smile = mockMvc.perform(get("/api/users/" + savedUser.getId())
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/users").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn();
+
+        // Assert
+        JsonNode user = new SmileMapper().readTree(smile.getResponse().getContentAsByteArray());
+        assertEquals("binaryuser", user.get("username").asText());
+        assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(savedUser.getCreatedAt()), user.get("createdAt").asText());
+        JsonNode page = new CBORMapper().readTree(cbor.getResponse().getContentAsByteArray());
+        assertEquals("binary@example.com", page.get("content").get(0).get("email").asText());
+        assertInstanceOf(IsoLocalDateTimeSerializer.class,
+                objectMapper.getSerializerProviderInstance().findValueSerializer(LocalDateTime.class));
+    }
+
     @Test
     @WithMockUser
     @Transactional
@@ -126,6 +178,41 @@ class UserIntegrationTest {
                 .andExpect(jsonPath("$.totalPages").value(2));
     }
 
+    @Test
+    @WithMockUser
+    @Transactional
+    void getAllUsers_WithCursor_VisitsEveryUserOnce() throws Exception {
+        // Arrange - Create multiple users
+        for (int i = 1; i <= 5; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("password");
+            user.setActive(true);
+            userRepository.save(user);
+        }
+
+        // Act - Follow nextCursor until exhausted
+        Set<String> seen = new HashSet<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            String body = mockMvc.perform(get("/api/users")
+                    .param("cursor", cursor)
+                    .param("size", "2"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(user -> seen.add(user.get("username").asText()));
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        }
+
+        // Assert
+        assertEquals(3, pages);
+        assertEquals(5, seen.size());
+    }
+
     @Test
     @WithMockUser
     @Transactional
@@ -206,4 +293,335 @@ class UserIntegrationTest {
         User deactivatedUser = userRepository.findById(savedUser.getId()).orElseThrow();
         assert(!deactivatedUser.getActive());
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser
+    void createUsers_Batch_ReportsEachItem() throws Exception {
+        // Arrange
+        User existing = new User();
+        existing.setUsername("existing");
+        existing.setEmail("existing@example.com");
+        existing.setPassword("password");
+        existing.setActive(true);
+        userRepository.save(existing);
+
+        List<Map<String, String>> request = List.of(
+                Map.of("username", "batch1", "email", "batch1@example.com", "password", "password123"),
+                Map.of("username", "existing", "email", "fresh@example.com", "password", "password123"),
+                Map.of("username", "batch1", "email", "batch1b@example.com", "password", "password123"),
+                Map.of("username", "batch2", "email", "not-an-email", "password", "password123"),
+                Map.of("username", "batch3", "email", "batch3@example.com", "password", "password123"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.conflicts").value(2))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].user.id").exists())
+                .andExpect(jsonPath("$.results[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[2].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.results[3].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[4].status").value("CREATED"));
+
+        // Verify in database
+        assertEquals(3, userRepository.count());
+        assert(userRepository.existsByUsername("batch3"));
+        assert(!userRepository.existsByEmail("fresh@example.com"));
+    }
+
+    @Test
+    @WithMockUser
+    void deactivateUsers_BySearch_UpdatesRowsAndCachedReads() throws Exception {
+        // Arrange
+        User first = userRepository.save(new User("cohort1", "cohort1@example.com", "password"));
+        User second = userRepository.save(new User("cohort2", "cohort2@example.com", "password"));
+        User other = userRepository.save(new User("bystander", "bystander@example.com", "password"));
+        mockMvc.perform(get("/api/users/" + first.getId()))
+                .andExpect(jsonPath("$.active").value(true));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/users/bulk/deactivate")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"search\":\"COHORT\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.affected").value(2))
+                .andExpect(jsonPath("$.chunks").value(1));
+
+        mockMvc.perform(get("/api/users/" + first.getId()))
+                .andExpect(jsonPath("$.active").value(false));
+        mockMvc.perform(get("/api/users").param("search", "cohort"))
+                .andExpect(jsonPath("$.content.length()").value(0));
+
+        // Verify in database
+        User deactivated = userRepository.findById(second.getId()).orElseThrow();
+        assert(!deactivated.getActive());
+        assert(deactivated.getUpdatedAt().isAfter(second.getUpdatedAt()));
+        assertEquals(second.getVersion() + 1, deactivated.getVersion());
+        assert(userRepository.findById(other.getId()).orElseThrow().getActive());
+    }
+
+    @Test
+    @WithMockUser
+    void getUserById_ConditionalGet_NotModifiedUntilUpdated() throws Exception {
+        // Arrange
+        User user = userRepository.save(new User("polled", "polled@example.com", "password"));
+        String etag = mockMvc.perform(get("/api/users/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/" + user.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/users/username/polled").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(put("/api/users/" + user.getId())
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"polled\",\"email\":\"changed@example.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(user.getVersion() + 1));
+
+        mockMvc.perform(get("/api/users/" + user.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("changed@example.com"));
+    }
+
+    @Test
+    @WithMockUser
+    void conditionalWrites_StaleIfMatchRejectedWith412() throws Exception {
+        // Arrange: two clients read the same version
+        User user = userRepository.save(new User("edited", "edited@example.com", "password"));
+        String etag = mockMvc.perform(get("/api/users/" + user.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert: the first write wins and gets the new tag, the second is rejected
+        String updatedEtag = mockMvc.perform(put("/api/users/" + user.getId())
+                .with(csrf())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"edited\",\"email\":\"first@example.com\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(put("/api/users/" + user.getId())
+                .with(csrf())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"edited\",\"email\":\"second@example.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/users/" + user.getId() + "/deactivate")
+                .with(csrf())
+                .header("If-Match", updatedEtag))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"" + user.getId() + "-" + (user.getVersion() + 2) + "\""));
+
+        User stored = userRepository.findById(user.getId()).orElseThrow();
+        assertEquals("first@example.com", stored.getEmail());
+        assertFalse(stored.getActive());
+    }
+
+    @Test
+    @WithMockUser
+    void deleteUsers_ByIds_DeletesOnlyExistingRows() throws Exception {
+        // Arrange
+        User doomed = userRepository.save(new User("doomed", "doomed@example.com", "password"));
+        User kept = userRepository.save(new User("kept", "kept@example.com", "password"));
+        mockMvc.perform(get("/api/users/username/doomed"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("ids", List.of(doomed.getId(), doomed.getId(), 999_999L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matched").value(2))
+                .andExpect(jsonPath("$.affected").value(1));
+
+        mockMvc.perform(get("/api/users/username/doomed"))
+                .andExpect(status().isNotFound());
+
+        // Verify in database
+        assertEquals(1, userRepository.count());
+        assert(userRepository.existsById(kept.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void streamChanges_ReceivesCommittedWrites() throws Exception {
+        // Arrange
+        MvcResult stream = mockMvc.perform(get("/api/users/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        Map<String, String> request = Map.of("username", "streamed", "email", "streamed@example.com",
+                "password", "password123");
+
+        // Act
+        mockMvc.perform(post("/api/users")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // Assert
+        String events = "";
+        for (int attempt = 0; attempt < 50 && !events.contains("event:created"); attempt++) {
+            Thread.sleep(100);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertTrue(events.contains("event:created"), events);
+        assertTrue(events.contains("\"username\":\"streamed\""), events);
+    }
+
+    @Test
+    @WithMockUser
+    void streamChanges_ReceivesBatchAndBulkWrites() throws Exception {
+        // Arrange
+        MvcResult stream = mockMvc.perform(get("/api/users/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        List<Map<String, String>> batch = List.of(
+                Map.of("username", "fanout1", "email", "fanout1@example.com", "password", "password123"),
+                Map.of("username", "fanout2", "email", "fanout2@example.com", "password", "password123"));
+
+        // Act
+        mockMvc.perform(post("/api/users/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/users/bulk/deactivate")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"search\":\"fanout\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/users/bulk/delete")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"search\":\"fanout1\"}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        String events = "";
+        for (int attempt = 0; attempt < 50 && !events.contains("event:deleted"); attempt++) {
+            Thread.sleep(100);
+            events = stream.getResponse().getContentAsString();
+        }
+        assertEquals(2, count(events, "event:created"), events);
+        assertEquals(2, count(events, "event:deactivated"), events);
+        assertEquals(1, count(events, "event:deleted"), events);
+        assertTrue(events.contains("\"username\":\"fanout2\""), events);
+        assertFalse(events.contains("event:reset"), events);
+    }
+
+    @Test
+    @WithMockUser
+    void exportUsers_StreamsEveryUser() throws Exception {
+        // Arrange
+        User active = new User("exported", "exported@example.com", "password");
+        User inactive = new User("dormant", "dormant@example.com", "password");
+        inactive.setActive(false);
+        userRepository.saveAll(List.of(active, inactive));
+
+        // Act
+        MvcResult ndjson = mockMvc.perform(get("/api/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult csv = mockMvc.perform(get("/api/users/export").param("format", "csv").param("activeOnly", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String lines = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<JsonNode> users = lines.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).toList();
+        assertEquals(List.of("exported", "dormant"), users.stream().map(user -> user.get("username").asText()).toList());
+        assertEquals(false, users.get(1).get("active").asBoolean());
+
+        String rows = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(2, rows.lines().count());
+        assert(rows.startsWith("id,username,email,active,createdAt,updatedAt\r\n"));
+        assert(rows.contains(",exported,exported@example.com,true,"));
+    }
+
+    @Test
+    @WithMockUser
+    void importUsers_Csv_CommitsGoodRowsAndReportsBadOnes() throws Exception {
+        // Arrange
+        userRepository.save(new User("existing", "existing@example.com", "password"));
+        String csv = "username,email,password\r\n"
+                + "imported1,imported1@example.com,password123\r\n"
+                + "existing,other@example.com,password123\r\n"
+                + "imported2,not-an-email,password123\r\n"
+                + "imported3,\"imported3@example.com\"\r\n"
+                + "\"imported,4\",imported4@example.com,\"pass\"\"word\"\r\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                .with(csrf())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(5))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.conflicts").value(1))
+                .andExpect(jsonPath("$.invalid").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(3))
+                .andExpect(jsonPath("$.errors[1].index").value(1))
+                .andExpect(jsonPath("$.errors[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$.errors[2].index").value(2));
+
+        // Verify in database
+        assertEquals(3, userRepository.count());
+        assert(userRepository.existsByUsername("imported,4"));
+    }
+
+    @Test
+    @WithMockUser
+    void importUsers_EmailLongerThanColumn_ReportsRowAndContinues() throws Exception {
+        // Arrange: a syntactically valid address that does not fit the 255-character email column
+        String longEmail = "a".repeat(64) + "@" + "b".repeat(63) + "." + "c".repeat(63) + "." + "d".repeat(63) + ".com";
+        String csv = "username,email,password\r\n"
+                + "longmail1,longmail1@example.com,password123\r\n"
+                + "longmail2," + longEmail + ",password123\r\n"
+                + "longmail3,longmail3@example.com,password123\r\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/users/import")
+                .with(csrf())
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(3))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].status").value("INVALID"))
+                .andExpect(jsonPath("$.resumeFromRow").isEmpty());
+
+        // Verify in database
+        assert(userRepository.existsByUsername("longmail3"));
+        assert(!userRepository.existsByUsername("longmail2"));
+    }
+
+    private static int count(String text, String token) {
+        return text.split(Pattern.quote(token), -1).length - 1;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.template.integration;
+
+import com.example.template.config.SqlStatementCounter;
+import com.example.template.dto.UserDto;
+import com.example.template.dto.UserPatch;
+import com.example.template.model.User;
+import com.example.template.repository.UserRepository;
+import com.example.template.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails the build when a UserServiceImpl path executes more SQL statements than expected.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@TestPropertySource(locations = "classpath:application-test.yml", properties = "app.sql.default-budget=0")
+@DirtiesContext
+class UserServiceQueryBudgetIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User existing;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        existing = userRepository.save(new User("existing", "existing@example.com", "password"));
+    }
+
+    @Test
+    void createUser_SingleInsert() {
+        UserDto user = new UserDto();
+        user.setUsername("budgeted");
+        user.setEmail("budgeted@example.com");
+
+        assertStatementsAtMost(1, () -> userService.createUser(user, "password123"));
+    }
+
+    @Test
+    void updateUser_SelectAndUpdate() {
+        UserDto update = new UserDto();
+        update.setUsername("renamed");
+        update.setEmail(existing.getEmail());
+
+        assertStatementsAtMost(2, () -> userService.updateUser(existing.getId(), update));
+    }
+
+    @Test
+    void patchUser_SelectAndUpdate_NoOpPatchSkipsUpdate() {
+        assertStatementsAtMost(2, () -> userService.patchUser(existing.getId(), UserPatch.of("patched", null), null));
+        assertStatementsAtMost(1, () -> userService.patchUser(existing.getId(), UserPatch.of("patched", null), null));
+
+        User patched = userRepository.findById(existing.getId()).orElseThrow();
+        assertEquals("patched", patched.getUsername());
+        assertEquals("existing@example.com", patched.getEmail());
+        assertEquals(existing.getVersion() + 1, patched.getVersion());
+    }
+
+    @Test
+    void activationToggles_SelectAndUpdate() {
+        assertStatementsAtMost(2, () -> userService.deactivateUser(existing.getId()));
+        assertStatementsAtMost(2, () -> userService.activateUser(existing.getId()));
+    }
+
+    @Test
+    void getUserById_SecondReadServedFromCache() {
+        assertStatementsAtMost(1, () -> userService.getUserById(existing.getId()));
+        assertStatementsAtMost(0, () -> userService.getUserById(existing.getId()));
+    }
+
+    @Test
+    @WithMockUser
+    void requestsOverBudget_AreCountedPerRoute() throws Exception {
+        // Act - activate has a budget of 2; listing has none and falls back to the default of 0
+        mockMvc.perform(patch("/api/users/" + existing.getId() + "/activate").with(csrf()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/users"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(0, meterRegistry.get("sql.budget.exceeded")
+                .tag("endpoint", "PATCH /api/users/{id}/activate").counter().count());
+        assertEquals(1, meterRegistry.get("sql.budget.exceeded")
+                .tag("endpoint", "GET /api/users").counter().count());
+        assertEquals(1, meterRegistry.get("sql.statements.per.request")
+                .tag("endpoint", "PATCH /api/users/{id}/activate").summary().count());
+    }
+
+    private static void assertStatementsAtMost(int budget, Runnable action) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            action.run();
+            assertTrue(scope.count() <= budget,
+                    "Expected at most " + budget + " SQL statements but " + scope.count() + " were executed");
+        }
+    }
+}
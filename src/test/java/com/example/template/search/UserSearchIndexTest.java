@@ -0,0 +1,161 @@
+package com.example.template.search;
+
+import com.example.template.dto.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new UserSearchIndex(true);
+        index.markReady();
+        index.put(new IndexedUser(1L, "johnsmith", "john@example.com", NOW.minusMinutes(3), true));
+        index.put(new IndexedUser(2L, "janedoe", "jane@example.com", NOW.minusMinutes(2), true));
+        index.put(new IndexedUser(3L, "johnny", "jd@other.org", NOW.minusMinutes(1), true));
+    }
+
+    @Test
+    void search_MatchesUsernameAndEmailCaseInsensitively() {
+        // Act
+        SearchResult result = index.search("JOHN", PageRequest.of(0, 10, Sort.by("id"))).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(1L, 3L), result.ids());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void search_RequiresContiguousSubstring() {
+        // "ohn" and "nsm" are both present in johnsmith, "ohnsm" is too, "ohnxsm" is not
+        assertEquals(1, index.search("ohnsm", PageRequest.of(0, 10)).orElseThrow().total());
+        assertEquals(0, index.search("ohnxsm", PageRequest.of(0, 10)).orElseThrow().total());
+    }
+
+    @Test
+    void search_PagesInSortOrderAndReportsTotal() {
+        // Act
+        SearchResult result = index.search("example", PageRequest.of(1, 1, Sort.by(Sort.Direction.DESC, "createdAt")))
+                .orElseThrow();
+
+        // Assert
+        assertEquals(List.of(1L), result.ids());
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void search_ExcludesInactiveUsers() {
+        // Arrange
+        index.put(new IndexedUser(3L, "johnny", "jd@other.org", NOW.minusMinutes(1), false));
+
+        // Act & Assert
+        assertEquals(List.of(1L), index.search("john", PageRequest.of(0, 10)).orElseThrow().ids());
+    }
+
+    @Test
+    void put_ReplacingEntryDropsOldTrigrams() {
+        // Arrange
+        index.put(new IndexedUser(2L, "renamed", "renamed@example.com", NOW.minusMinutes(2), true));
+
+        // Act & Assert
+        assertEquals(0, index.search("jane", PageRequest.of(0, 10)).orElseThrow().total());
+        assertEquals(List.of(2L), index.search("renamed", PageRequest.of(0, 10)).orElseThrow().ids());
+    }
+
+    @Test
+    void setActive_TogglesVisibilityWithoutReindexing() {
+        // Act
+        index.setActive(List.of(1L, 99L), false);
+
+        // Assert
+        assertEquals(List.of(3L), index.search("john", PageRequest.of(0, 10)).orElseThrow().ids());
+
+        index.setActive(List.of(1L), true);
+        assertEquals(2, index.search("john", PageRequest.of(0, 10)).orElseThrow().total());
+    }
+
+    @Test
+    void remove_DropsUserFromResults() {
+        // Act
+        index.remove(1L);
+
+        // Assert
+        assertEquals(List.of(3L), index.search("john", PageRequest.of(0, 10)).orElseThrow().ids());
+    }
+
+    @Test
+    void searchBefore_SeeksPastCursor() {
+        // Act
+        SearchResult result = index.searchBefore("john", new KeysetCursor(NOW.minusMinutes(1), 3L), 10).orElseThrow();
+
+        // Assert
+        assertEquals(List.of(1L), result.ids());
+    }
+
+    @Test
+    void search_UnanswerableTermsFallBack() {
+        assertTrue(index.search("jo", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(index.search("john", PageRequest.of(0, 10, Sort.by("active"))).isEmpty());
+        assertTrue(new UserSearchIndex(true).search("john", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void resync_AppliesWritesMadeElsewhere() {
+        // Arrange: another instance renamed user 1, deleted user 2 and created user 4
+        index.beginResync();
+
+        // Act
+        boolean renamed = index.resync(new IndexedUser(1L, "jsmith", "smith@example.com", NOW.minusMinutes(3), true));
+        boolean unchanged = index.resync(new IndexedUser(3L, "johnny", "jd@other.org", NOW.minusMinutes(1), true));
+        index.resync(new IndexedUser(4L, "johnjones", "jj@example.com", NOW, true));
+        int deleted = index.finishResync();
+
+        // Assert
+        assertTrue(renamed);
+        assertFalse(unchanged);
+        assertEquals(1, deleted);
+        assertEquals(List.of(3L, 4L), index.search("john", PageRequest.of(0, 10, Sort.by("id"))).orElseThrow().ids());
+        assertEquals(List.of(1L, 4L), index.search("example", PageRequest.of(0, 10, Sort.by("id"))).orElseThrow().ids());
+    }
+
+    @Test
+    void resync_KeepsLocalWritesMadeWhileReading() {
+        // Arrange: user 5 is created and user 1 deleted here after the resync read started
+        index.beginResync();
+        index.put(new IndexedUser(5L, "johnlocal", "local@example.com", NOW, true));
+        index.remove(1L);
+
+        // Act: the read still saw user 1, and did not see user 5
+        index.resync(new IndexedUser(1L, "johnsmith", "john@example.com", NOW.minusMinutes(3), true));
+        index.resync(new IndexedUser(2L, "janedoe", "jane@example.com", NOW.minusMinutes(2), true));
+        index.resync(new IndexedUser(3L, "johnny", "jd@other.org", NOW.minusMinutes(1), true));
+        index.finishResync();
+
+        // Assert
+        assertEquals(List.of(3L, 5L), index.search("john", PageRequest.of(0, 10, Sort.by("id"))).orElseThrow().ids());
+    }
+
+    @Test
+    void cancelResync_RemovesNothing() {
+        // Arrange
+        index.beginResync();
+        index.resync(new IndexedUser(1L, "johnsmith", "john@example.com", NOW.minusMinutes(3), true));
+
+        // Act
+        index.cancelResync();
+
+        // Assert
+        assertEquals(3, index.size());
+    }
+}
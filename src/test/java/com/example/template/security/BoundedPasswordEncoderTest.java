@@ -0,0 +1,100 @@
+package com.example.template.security;
+
+import com.example.template.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void encode_RunsOnHashingPool() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), 2, 10, Duration.ofSeconds(1), meterRegistry);
+        release.countDown();
+
+        // Act
+        String encoded = encoder.encode("secret");
+
+        // Assert
+        assertEquals("password-hash-1:secret", encoded);
+        assertTrue(encoder.matches("secret", encoded));
+    }
+
+    @Test
+    void encodeAll_PreservesOrder() {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), 2, 1, Duration.ofSeconds(1), meterRegistry);
+        release.countDown();
+
+        // Act
+        List<String> encoded = encoder.encodeAll(List.of("a", "b", "c", "d", "e"));
+
+        // Assert
+        assertEquals(List.of("a", "b", "c", "d", "e"),
+                encoded.stream().map(hash -> hash.substring(hash.indexOf(':') + 1)).toList());
+    }
+
+    @Test
+    void encode_QueueFull_FailsFastAndCountsRejection() throws Exception {
+        // Arrange
+        encoder = new BoundedPasswordEncoder(new PrefixEncoder(), 1, 1, Duration.ofSeconds(3), meterRegistry);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("running"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("queued"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class, () -> encoder.encode("rejected"));
+
+        // Assert
+        assertEquals(Duration.ofSeconds(3), ex.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS).endsWith(":running"));
+        assertTrue(queued.get(5, TimeUnit.SECONDS).endsWith(":queued"));
+    }
+
+    // Tags each hash with the worker thread name and blocks until the test releases it.
+    private class PrefixEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().getName() + ":" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.endsWith(":" + rawPassword);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.template.service;
+
+import com.example.template.cache.UserAvailabilityFilter;
+import com.example.template.cache.UserCache;
+import com.example.template.cache.UserCountCache;
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BatchCreateResult;
+import com.example.template.dto.CreateUserRequest;
+import com.example.template.events.UserChangeStream;
+import com.example.template.repository.UserBatchRepository;
+import com.example.template.repository.UserBatchRepository.NewUser;
+import com.example.template.repository.UserRepository;
+import com.example.template.search.UserSearchIndex;
+import com.example.template.security.BoundedPasswordEncoder;
+import com.example.template.service.impl.UserBatchServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBatchServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserBatchRepository userBatchRepository;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserCountCache userCountCache;
+
+    @Mock
+    private UserAvailabilityFilter availabilityFilter;
+
+    @Mock
+    private UserChangeStream changeStream;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserBatchServiceImpl batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new UserBatchServiceImpl(userRepository, userBatchRepository, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(), new UserSearchIndex(false),
+                new UserCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), userCountCache,
+                availabilityFilter, changeStream, transactionManager, 100, 10);
+    }
+
+    @Test
+    void createUsers_EmailLongerThanColumn_ReportedInvalid() {
+        // Arrange
+        String longEmail = "a".repeat(64) + "@" + "b".repeat(63) + "." + "c".repeat(63) + "." + "d".repeat(63) + ".com";
+        when(passwordEncoder.encodeAll(anyList())).thenReturn(List.of("hashed"));
+        when(userBatchRepository.insertAll(anyList(), any())).thenReturn(List.of(1L));
+
+        // Act
+        BatchCreateResponse response = batchService.createUsers(List.of(
+                new CreateUserRequest("longmail", longEmail, "password123"),
+                new CreateUserRequest("fine", "fine@example.com", "password123")));
+
+        // Assert
+        assertEquals(BatchCreateResult.Status.INVALID, response.getResults().get(0).getStatus());
+        assertTrue(response.getResults().get(0).getMessage().contains("at most 255"));
+        assertEquals(BatchCreateResult.Status.CREATED, response.getResults().get(1).getStatus());
+    }
+
+    @Test
+    void createUsers_RowRejectedByDatabase_OnlyThatRowFails() {
+        // Arrange: the chunk insert fails on a NOT NULL / length violation, then again for that row alone
+        when(passwordEncoder.encodeAll(anyList())).thenReturn(List.of("hashed1", "hashed2", "hashed3"));
+        when(userBatchRepository.insertAll(anyList(), any())).thenAnswer(invocation -> {
+            List<NewUser> users = invocation.getArgument(0);
+            if (users.stream().anyMatch(user -> user.username().equals("rejected"))) {
+                throw new DataIntegrityViolationException("value too long for column \"EMAIL\"");
+            }
+            return List.of((long) users.get(0).username().length());
+        });
+
+        // Act
+        BatchCreateResponse response = batchService.createUsers(List.of(
+                new CreateUserRequest("first", "first@example.com", "password123"),
+                new CreateUserRequest("rejected", "rejected@example.com", "password123"),
+                new CreateUserRequest("third", "third@example.com", "password123")));
+
+        // Assert
+        assertEquals(2, response.getCreated());
+        assertEquals(1, response.getInvalid());
+        assertEquals(BatchCreateResult.Status.INVALID, response.getResults().get(1).getStatus());
+        assertEquals(BatchCreateResult.Status.CREATED, response.getResults().get(2).getStatus());
+        verify(userCountCache, times(2)).adjustActiveUsers(1);
+    }
+}
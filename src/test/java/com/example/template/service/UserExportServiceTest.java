@@ -0,0 +1,95 @@
+package com.example.template.service;
+
+import com.example.template.dto.DataFormat;
+import com.example.template.model.User;
+import com.example.template.repository.UserRepository;
+import com.example.template.service.impl.UserExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceTest {
+
+    private static final int ROWS = 1000;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private UserExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new UserExportServiceImpl(userRepository, entityManager,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+        when(userRepository.streamAllOrderById()).thenReturn(users(ROWS));
+    }
+
+    @Test
+    void exportUsers_Ndjson_FlushesOnceAtTheEnd() throws Exception {
+        // Arrange
+        FlushCountingOutputStream out = new FlushCountingOutputStream();
+
+        // Act
+        exportService.exportUsers(DataFormat.NDJSON, false, out);
+
+        // Assert
+        assertEquals(1, out.flushes);
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertEquals(ROWS, body.lines().count());
+        assertTrue(body.startsWith("{\"id\":1,\"username\":\"user1\""));
+        verify(entityManager, times(ROWS)).detach(any(User.class));
+    }
+
+    @Test
+    void exportUsers_Csv_FlushesOnceAtTheEnd() throws Exception {
+        // Arrange
+        FlushCountingOutputStream out = new FlushCountingOutputStream();
+
+        // Act
+        exportService.exportUsers(DataFormat.CSV, false, out);
+
+        // Assert
+        assertEquals(1, out.flushes);
+        assertEquals(ROWS + 1, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    private static Stream<User> users(int count) {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        return IntStream.rangeClosed(1, count).mapToObj(i -> {
+            User user = new User("user" + i, "user" + i + "@example.com", "password");
+            user.setId((long) i);
+            user.setActive(true);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            return user;
+        });
+    }
+
+    private static final class FlushCountingOutputStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
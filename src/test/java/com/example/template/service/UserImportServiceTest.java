@@ -0,0 +1,120 @@
+package com.example.template.service;
+
+import com.example.template.dto.BatchCreateResponse;
+import com.example.template.dto.BatchCreateResult;
+import com.example.template.dto.CreateUserRequest;
+import com.example.template.dto.DataFormat;
+import com.example.template.dto.ImportReport;
+import com.example.template.exception.ServiceOverloadedException;
+import com.example.template.service.impl.UserImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private UserBatchService userBatchService;
+
+    private UserImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new UserImportServiceImpl(userBatchService, new ObjectMapper(), 2, 100);
+    }
+
+    @Test
+    void importUsers_HashingOverloaded_StopsWithResumePosition() throws Exception {
+        // Arrange: the first chunk commits, the second is rejected before anything is written
+        String csv = "username,email,password\n"
+                + "user0,user0@example.com,password123\n"
+                + "user1,user1@example.com,password123\n"
+                + "broken\n"
+                + "user3,user3@example.com,password123\n"
+                + "user4,user4@example.com,password123\n";
+        when(userBatchService.createUsers(anyList()))
+                .thenAnswer(invocation -> created(invocation.<List<CreateUserRequest>>getArgument(0).size()))
+                .thenThrow(new ServiceOverloadedException("Password hashing capacity exceeded", Duration.ofSeconds(2)));
+
+        // Act
+        ImportReport report = importService.importUsers(DataFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert: rows from the failed chunk on, including its invalid row, are left for the retry
+        assertEquals(2L, report.getResumeFromRow());
+        assertEquals(2L, report.getRetryAfterSeconds());
+        assertEquals(2, report.getRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getChunks());
+        assertEquals(0, report.getInvalid());
+        assertTrue(report.getErrors().isEmpty());
+        verify(userBatchService, times(2)).createUsers(anyList());
+    }
+
+    @Test
+    void importUsers_Completed_HasNoResumePosition() throws Exception {
+        // Arrange
+        String ndjson = "{\"username\":\"user0\",\"email\":\"user0@example.com\",\"password\":\"password123\"}\n"
+                + "not json\n"
+                + "{\"username\":\"user2\",\"email\":\"user2@example.com\",\"password\":\"password123\"}\n";
+        when(userBatchService.createUsers(anyList()))
+                .thenAnswer(invocation -> created(invocation.<List<CreateUserRequest>>getArgument(0).size()));
+
+        // Act
+        ImportReport report = importService.importUsers(DataFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertNull(report.getResumeFromRow());
+        assertEquals(3, report.getRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getInvalid());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+    }
+
+    @Test
+    void importUsers_RowRejectedByDatabase_ReportedAndImportContinues() throws Exception {
+        // Arrange: the batch service reports the second row of the first chunk as rejected
+        String csv = "username,email,password\n"
+                + "user0,user0@example.com,password123\n"
+                + "user1,user1@example.com,password123\n"
+                + "user2,user2@example.com,password123\n";
+        when(userBatchService.createUsers(anyList()))
+                .thenReturn(new BatchCreateResponse(List.of(
+                        BatchCreateResult.created(0, null),
+                        BatchCreateResult.invalid(1, "Rejected by a database constraint"))))
+                .thenAnswer(invocation -> created(invocation.<List<CreateUserRequest>>getArgument(0).size()));
+
+        // Act
+        ImportReport report = importService.importUsers(DataFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertNull(report.getResumeFromRow());
+        assertEquals(3, report.getRows());
+        assertEquals(2, report.getCreated());
+        assertEquals(1, report.getInvalid());
+        assertEquals(1, report.getErrors().get(0).getIndex());
+        verify(userBatchService, times(2)).createUsers(anyList());
+    }
+
+    private static BatchCreateResponse created(int count) {
+        return new BatchCreateResponse(IntStream.range(0, count)
+                .mapToObj(i -> BatchCreateResult.created(i, null))
+                .toList());
+    }
+}
@@ -1,20 +1,44 @@
 package com.example.template.service;
 
+import com.example.template.cache.UserAvailabilityFilter;
+import com.example.template.cache.UserCache;
+import com.example.template.cache.UserCountCache;
+import com.example.template.dto.TotalCount;
+import com.example.template.dto.UserAvailability;
 import com.example.template.dto.UserDto;
+import com.example.template.dto.UserPatch;
+import com.example.template.dto.UserVersion;
+import com.example.template.events.UserChangeEvent;
+import com.example.template.events.UserChangeStream;
+import com.example.template.exception.PreconditionFailedException;
 import com.example.template.exception.ResourceAlreadyExistsException;
 import com.example.template.exception.ResourceNotFoundException;
 import com.example.template.model.User;
 import com.example.template.repository.UserRepository;
+import com.example.template.search.UserSearchIndex;
 import com.example.template.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +55,24 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserCountCache userCountCache;
+
+    @Spy
+    private UserCache userCache = new UserCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private UserSearchIndex searchIndex = new UserSearchIndex(true);
+
+    @Mock
+    private UserAvailabilityFilter availabilityFilter;
+
+    @Mock
+    private UserChangeStream changeStream;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -60,10 +102,8 @@ class UserServiceTest {
     @Test
     void createUser_Success() {
         // Arrange
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(userRepository.existsByEmail(anyString())).thenReturn(false);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedpassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
         UserDto result = userService.createUser(testUserDto, "password123");
@@ -73,39 +113,67 @@ class UserServiceTest {
         assertEquals(testUserDto.getUsername(), result.getUsername());
         assertEquals(testUserDto.getEmail(), result.getEmail());
         assertTrue(result.getActive());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(availabilityFilter).add("testuser", "test@example.com");
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
         verify(passwordEncoder).encode("password123");
     }
 
     @Test
     void createUser_UsernameExists_ThrowsException() {
         // Arrange
-        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("PUBLIC.UK_USERS_USERNAME"));
 
         // Act & Assert
         ResourceAlreadyExistsException exception = assertThrows(ResourceAlreadyExistsException.class, 
             () -> userService.createUser(testUserDto, "password123"));
         assertTrue(exception.getMessage().contains("Username already exists"));
-        verify(userRepository, never()).save(any(User.class));
+        verify(userCountCache, never()).adjustActiveUsers(anyLong());
     }
 
     @Test
     void createUser_EmailExists_ThrowsException() {
         // Arrange
-        when(userRepository.existsByUsername(anyString())).thenReturn(false);
-        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("PUBLIC.UK_USERS_EMAIL"));
 
         // Act & Assert
         ResourceAlreadyExistsException exception = assertThrows(ResourceAlreadyExistsException.class, 
             () -> userService.createUser(testUserDto, "password123"));
         assertTrue(exception.getMessage().contains("Email already exists"));
-        verify(userRepository, never()).save(any(User.class));
+        verify(userCountCache, never()).adjustActiveUsers(anyLong());
     }
 
     @Test
-    void getUserById_Found() {
+    void createUser_OtherIntegrityViolation_Propagates() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("NULL not allowed");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        // Act & Assert
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+            () -> userService.createUser(testUserDto, "password123")));
+    }
+
+    @Test
+    void updateUser_EmailTaken_ThrowsException() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation("PUBLIC.UK_USERS_EMAIL"));
+        UserDto update = new UserDto();
+        update.setUsername(testUser.getUsername());
+        update.setEmail("taken@example.com");
+
+        // Act & Assert
+        ResourceAlreadyExistsException exception = assertThrows(ResourceAlreadyExistsException.class,
+            () -> userService.updateUser(1L, update));
+        assertEquals("Email already exists: taken@example.com", exception.getMessage());
+    }
+
+    @Test
+    void getUserById_Found() {
+        // Arrange
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(testUserDto));
 
         // Act
         Optional<UserDto> result = userService.getUserById(1L);
@@ -114,12 +182,13 @@ class UserServiceTest {
         assertTrue(result.isPresent());
         assertEquals(testUser.getUsername(), result.get().getUsername());
         assertEquals(testUser.getEmail(), result.get().getEmail());
+        verify(userRepository, never()).findById(any());
     }
 
     @Test
     void getUserById_NotFound() {
         // Arrange
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
         // Act
         Optional<UserDto> result = userService.getUserById(1L);
@@ -128,10 +197,61 @@ class UserServiceTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void getUserVersion_CachedUser_SkipsRepository() {
+        // Arrange
+        testUserDto.setVersion(2L);
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(testUserDto));
+        userService.getUserById(1L);
+
+        // Act
+        Optional<UserVersion> result = userService.getUserVersion(1L);
+
+        // Assert
+        assertEquals("\"1-2\"", result.orElseThrow().etag());
+        verify(userRepository, never()).findVersionById(any());
+    }
+
+    @Test
+    void getUserById_SecondLookupServedFromCache() {
+        // Arrange
+        when(userRepository.findDtoById(1L)).thenReturn(Optional.of(testUserDto));
+
+        // Act
+        userService.getUserById(1L);
+        Optional<UserDto> result = userService.getUserById(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(userRepository, times(1)).findDtoById(1L);
+    }
+
+    @Test
+    void getUserByUsername_StaleAfterRename_ReloadsFromRepository() {
+        // Arrange
+        when(userRepository.findDtoByUsername("testuser")).thenReturn(Optional.of(testUserDto));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.getUserByUsername("testuser");
+
+        UserDto update = new UserDto();
+        update.setUsername("renamed");
+        update.setEmail(testUser.getEmail());
+        userService.updateUser(1L, update);
+        when(userRepository.findDtoByUsername("testuser")).thenReturn(Optional.empty());
+
+        // Act
+        Optional<UserDto> result = userService.getUserByUsername("testuser");
+
+        // Assert
+        assertFalse(result.isPresent());
+        verify(userRepository, times(2)).findDtoByUsername("testuser");
+    }
+
     @Test
     void getUserByUsername_Found() {
         // Arrange
-        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findDtoByUsername("testuser")).thenReturn(Optional.of(testUserDto));
 
         // Act
         Optional<UserDto> result = userService.getUserByUsername("testuser");
@@ -141,6 +261,39 @@ class UserServiceTest {
         assertEquals(testUser.getUsername(), result.get().getUsername());
     }
 
+    @Test
+    void getActiveUsers_WithoutTotal_SkipsCount() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        when(userRepository.findActiveUsersSlice(pageable))
+                .thenReturn(new SliceImpl<>(List.of(testUserDto), pageable, true));
+
+        // Act
+        Slice<UserDto> result = userService.getActiveUsers(pageable, TotalCount.NONE);
+
+        // Assert
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+        verify(userRepository, never()).countByActiveTrue();
+        verify(userRepository, never()).findActiveUsers(any());
+    }
+
+    @Test
+    void getActiveUsers_ApproximateTotal_UsesCachedCount() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 1);
+        when(userRepository.findActiveUsersSlice(pageable))
+                .thenReturn(new SliceImpl<>(List.of(testUserDto), pageable, true));
+        when(userCountCache.activeUsers()).thenReturn(42L);
+
+        // Act
+        Slice<UserDto> result = userService.getActiveUsers(pageable, TotalCount.APPROXIMATE);
+
+        // Assert
+        assertEquals(42L, ((Page<UserDto>) result).getTotalElements());
+        verify(userRepository, never()).countByActiveTrue();
+    }
+
     @Test
     void deleteUser_Success() {
         // Arrange
@@ -151,6 +304,7 @@ class UserServiceTest {
 
         // Assert
         verify(userRepository).deleteById(1L);
+        verify(changeStream).publish(UserChangeEvent.Type.DELETED, 1L, null);
     }
 
     @Test
@@ -169,13 +323,13 @@ class UserServiceTest {
     void deactivateUser_Success() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
         assertDoesNotThrow(() -> userService.deactivateUser(1L));
 
         // Assert
-        verify(userRepository).save(argThat(user -> !user.getActive()));
+        verify(userRepository).saveAndFlush(argThat(user -> !user.getActive()));
     }
 
     @Test
@@ -183,12 +337,121 @@ class UserServiceTest {
         // Arrange
         testUser.setActive(false);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // Act
         assertDoesNotThrow(() -> userService.activateUser(1L));
 
         // Assert
-        verify(userRepository).save(argThat(User::getActive));
+        verify(userRepository).saveAndFlush(argThat(User::getActive));
+    }
+
+    @Test
+    void activateUser_MatchingVersion_ReturnsFlushedVersion() {
+        // Arrange
+        testUser.setActive(false);
+        testUser.setVersion(3L);
+        User flushed = new User();
+        flushed.setId(1L);
+        flushed.setVersion(4L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(flushed);
+
+        // Act
+        UserVersion version = userService.activateUser(1L, 3L);
+
+        // Assert
+        assertEquals("\"1-4\"", version.etag());
+        verify(changeStream).publish(eq(UserChangeEvent.Type.ACTIVATED), eq(1L), any(UserDto.class));
+    }
+
+    @Test
+    void activateUser_AlreadyActive_PublishesNoChange() {
+        // Arrange: nothing is dirty, so the flush leaves the version unchanged
+        testUser.setVersion(3L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+
+        // Act
+        userService.activateUser(1L, null);
+
+        // Assert
+        verify(changeStream, never()).publish(any(), any(), any());
+    }
+
+    @Test
+    void updateUser_StaleVersion_ThrowsPreconditionFailed() {
+        // Arrange
+        testUser.setVersion(5L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        UserDto update = new UserDto();
+        update.setUsername("renamed");
+        update.setEmail(testUser.getEmail());
+
+        // Act & Assert
+        assertThrows(PreconditionFailedException.class, () -> userService.updateUser(1L, update, 4L));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+        assertEquals("testuser", testUser.getUsername());
+    }
+
+    @Test
+    void patchUser_OnlyEmailSent_KeepsUsername() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+
+        // Act
+        UserDto result = userService.patchUser(1L, UserPatch.of(null, "new@example.com"), null);
+
+        // Assert
+        assertEquals("testuser", result.getUsername());
+        assertEquals("new@example.com", result.getEmail());
+    }
+
+    @Test
+    void patchUser_ExplicitNull_RejectedBeforeWrite() {
+        // Arrange
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        UserPatch patch = new UserPatch();
+        patch.setEmail(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> userService.patchUser(1L, patch, null));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void checkAvailability_NotInFilter_SkipsDatabase() {
+        // Arrange
+        when(availabilityFilter.mightContainUsername("newname")).thenReturn(false);
+
+        // Act
+        UserAvailability result = userService.checkAvailability("newname", null);
+
+        // Assert
+        assertTrue(result.getUsernameAvailable());
+        assertNull(result.getEmailAvailable());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkAvailability_PossibleCollision_ChecksRepository() {
+        // Arrange
+        when(availabilityFilter.mightContainUsername("testuser")).thenReturn(true);
+        when(availabilityFilter.mightContainEmail("free@example.com")).thenReturn(true);
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        when(userRepository.existsByEmail("free@example.com")).thenReturn(false);
+
+        // Act
+        UserAvailability result = userService.checkAvailability("testuser", "free@example.com");
+
+        // Assert
+        assertFalse(result.getUsernameAvailable());
+        assertTrue(result.getEmailAvailable());
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Unique index or primary key violation", new SQLException(), constraintName));
     }
-}
\ No newline at end of file
+}